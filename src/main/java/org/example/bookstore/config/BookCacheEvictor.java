@@ -0,0 +1,80 @@
+package org.example.bookstore.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Drops cached book details (CacheConfig.BOOKS) after a write to the book rows: edits, renamed
+// authors/categories, and stock, sold or rating counters. The eviction waits for the commit:
+// evicting inside the transaction would let a concurrent reader put the pre-commit row straight
+// back for the whole TTL. With a read replica, the first reader after the commit may still fill
+// the cache from a replica that has not caught up, so the entry is evicted once more when the
+// sticky window (the expected replica lag) has passed.
+@Component
+public class BookCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    private final TaskScheduler taskScheduler;
+
+    private final boolean replicaEnabled;
+
+    private final Duration stickyWindow;
+
+    public BookCacheEvictor(CacheManager cacheManager, TaskScheduler taskScheduler,
+                            @Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled,
+                            @Value("${app.datasource.replica.sticky-window:PT5S}") Duration stickyWindow) {
+        this.cacheManager = cacheManager;
+        this.taskScheduler = taskScheduler;
+        this.replicaEnabled = replicaEnabled;
+        this.stickyWindow = stickyWindow;
+    }
+
+    public void evictAfterCommit(UUID bookId) {
+        evictAfterCommit(List.of(bookId));
+    }
+
+    public void evictAfterCommit(Collection<UUID> bookIds) {
+        List<UUID> ids = List.copyOf(bookIds);
+        afterCommit(books -> ids.forEach(books::evict));
+    }
+
+    public void evictAllAfterCommit() {
+        afterCommit(Cache::clear);
+    }
+
+    private void afterCommit(Consumer<Cache> eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(eviction);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(eviction);
+            }
+        });
+    }
+
+    private void evict(Consumer<Cache> eviction) {
+        Cache books = cacheManager.getCache(CacheConfig.BOOKS);
+        if (books == null) {
+            return;
+        }
+        eviction.accept(books);
+        if (replicaEnabled) {
+            taskScheduler.schedule(() -> eviction.accept(books), Instant.now().plus(stickyWindow));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.bookstore.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BOOKS = "books";
+    public static final String AUTHORS = "authors";
+    public static final String AUTHOR_BY_NAME = "authorByName";
+    public static final String CATEGORIES = "categories";
+    public static final String USER_STATUS = "userStatus";
+
+    @Value("${app.cache.books.spec}")
+    private String booksSpec;
+
+    @Value("${app.cache.authors.spec}")
+    private String authorsSpec;
+
+    @Value("${app.cache.categories.spec}")
+    private String categoriesSpec;
+
+    @Value("${app.cache.user-status.spec}")
+    private String userStatusSpec;
+
+    // Each cache is registered up front so actuator binds its hit/miss/eviction meters at startup.
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(BOOKS, Caffeine.from(booksSpec).build());
+        cacheManager.registerCustomCache(AUTHORS, Caffeine.from(authorsSpec).build());
+        cacheManager.registerCustomCache(AUTHOR_BY_NAME, Caffeine.from(authorsSpec).build());
+        cacheManager.registerCustomCache(CATEGORIES, Caffeine.from(categoriesSpec).build());
+        cacheManager.registerCustomCache(USER_STATUS, Caffeine.from(userStatusSpec).build());
+        return cacheManager;
+    }
+}
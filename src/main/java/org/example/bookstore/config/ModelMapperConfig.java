@@ -1,5 +1,7 @@
 package org.example.bookstore.config;
 
+import org.example.bookstore.model.Book;
+import org.example.bookstore.payload.BookDTO;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,7 +10,21 @@ import org.springframework.context.annotation.Configuration;
 public class ModelMapperConfig {
     @Bean
     public ModelMapper modelMapper() {
-        return new ModelMapper();
+        ModelMapper modelMapper = new ModelMapper();
+        // updateBook maps a client DTO onto the entity; the rating is owned by the review writes, and
+        // author/category are resolved by name in the service. Left to the implicit mapping,
+        // authorName/categoryName would be written through to author.name/category.name, renaming
+        // the shared Author and Category rows.
+        modelMapper.emptyTypeMap(BookDTO.class, Book.class)
+                .addMappings(mapper -> {
+                    mapper.skip(Book::setAverageRating);
+                    mapper.skip(Book::setAuthor);
+                    mapper.skip(Book::setCategory);
+                    mapper.skip(Book::setAuthorName);
+                    mapper.skip(Book::setCategoryName);
+                })
+                .implicitMappings();
+        return modelMapper;
     }
 }
 
@@ -0,0 +1,19 @@
+package org.example.bookstore.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// The startup EXPLAIN check (QueryPlanChecker) needs to see the SQL of every repository method,
+// so the capturing inspector is only installed when the check is switched on.
+@Configuration
+@ConditionalOnProperty(name = "app.db.explain-check.enabled", havingValue = "true")
+public class QueryPlanCheckConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlCaptureCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlCaptureInspector());
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.bookstore.config;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Startup check that every derived and @Query repository method is served by an index. Each method
+// runs once with placeholder arguments inside a rolled-back transaction while SqlCaptureInspector
+// records its SQL; every captured statement is then EXPLAINed and full table scans (type=ALL) are
+// logged as warnings. MySQL only, and off by default: turn it on in dev/staging after schema changes.
+@Component
+@ConditionalOnProperty(name = "app.db.explain-check.enabled", havingValue = "true")
+@Slf4j
+public class QueryPlanChecker {
+
+    private static final Pattern LIMIT_PARAMETERS = Pattern.compile("(?i)\\blimit\\s+\\?(\\s*,\\s*\\?)?");
+    private static final Pattern OFFSET_PARAMETER = Pattern.compile("(?i)\\boffset\\s+\\?");
+    private static final Pattern EXPLAINABLE = Pattern.compile("(?is)^\\s*(select|update|delete)\\b.*");
+
+    // Bound to every '?' of an EXPLAIN: MySQL converts it to a valid constant for string, binary,
+    // numeric and date columns alike, so the plan is the one a real value would get.
+    private static final String EXPLAIN_PARAMETER = "2000-01-01";
+
+    private final ListableBeanFactory beanFactory;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DataSource dataSource;
+
+    public QueryPlanChecker(ListableBeanFactory beanFactory, EntityManager entityManager,
+                            PlatformTransactionManager transactionManager, DataSource dataSource) {
+        this.beanFactory = beanFactory;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (!"MySQL".equalsIgnoreCase(product)) {
+                log.info("Skipping query plan check: EXPLAIN output is only understood for MySQL, not {}", product);
+                return;
+            }
+            Map<String, String> statements = collectStatements();
+            int fullScans = 0;
+            for (Map.Entry<String, String> statement : statements.entrySet()) {
+                fullScans += explain(connection, statement.getKey(), statement.getValue());
+            }
+            log.info("Query plan check: {} statements explained, {} full table scans", statements.size(), fullScans);
+        } catch (SQLException ex) {
+            log.warn("Query plan check failed: {}", ex.getMessage());
+        }
+    }
+
+    /** SQL of every repository query method, mapped to the method that issued it first. */
+    Map<String, String> collectStatements() {
+        Map<String, String> statements = new LinkedHashMap<>();
+        Repositories repositories = new Repositories(beanFactory);
+        for (Class<?> domainType : repositories) {
+            Optional<RepositoryInformation> information = repositories.getRepositoryInformationFor(domainType);
+            Optional<Object> repository = repositories.getRepositoryFor(domainType);
+            if (information.isEmpty() || repository.isEmpty()) {
+                continue;
+            }
+            for (Method method : information.get().getQueryMethods()) {
+                String name = information.get().getRepositoryInterface().getSimpleName() + "." + method.getName();
+                for (String sql : capture(repository.get(), method, name)) {
+                    statements.putIfAbsent(sql, name);
+                }
+            }
+        }
+        return statements;
+    }
+
+    private Set<String> capture(Object repository, Method method, String name) {
+        Object[] arguments = new Object[method.getParameterCount()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = placeholder(method.getParameterTypes()[i], method.getGenericParameterTypes()[i]);
+            if (arguments[i] == null) {
+                log.debug("Query plan check: no placeholder for parameter {} of {}", i, name);
+                return Set.of();
+            }
+        }
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            SqlCaptureInspector.start();
+            try {
+                method.invoke(repository, arguments);
+            } catch (Exception ex) {
+                // placeholder arguments may violate constraints; the SQL has been seen by then
+                log.debug("Query plan check: {} failed with placeholder arguments: {}", name, ex.getMessage());
+            } finally {
+                entityManager.clear();
+            }
+            return SqlCaptureInspector.stop();
+        });
+    }
+
+    private Object placeholder(Class<?> type, Type genericType) {
+        if (type == UUID.class) {
+            return UUID.randomUUID();
+        }
+        if (type == String.class) {
+            return "x";
+        }
+        if (type == int.class || type == Integer.class) {
+            return 1;
+        }
+        if (type == long.class || type == Long.class) {
+            return 1L;
+        }
+        if (type == double.class || type == Double.class) {
+            return 1.0;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return false;
+        }
+        if (type == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (type == Date.class) {
+            return new Date();
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == Limit.class) {
+            return Limit.of(1);
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 1);
+        }
+        if (type == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (Collection.class.isAssignableFrom(type) && genericType instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> elementType) {
+            Object element = placeholder(elementType, elementType);
+            return element == null ? null : List.of(element);
+        }
+        if (type.isAnnotationPresent(Entity.class)) {
+            Class<?> idType = entityManager.getMetamodel().entity(type).getIdType().getJavaType();
+            Object id = placeholder(idType, idType);
+            return id == null ? null : entityManager.getReference(type, id);
+        }
+        return null;
+    }
+
+    private int explain(Connection connection, String sql, String method) {
+        if (!EXPLAINABLE.matcher(sql).matches()) {
+            return 0;
+        }
+        String explainable = OFFSET_PARAMETER.matcher(LIMIT_PARAMETERS.matcher(sql).replaceAll("limit 10"))
+                .replaceAll("offset 0");
+        int fullScans = 0;
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + explainable)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setString(i, EXPLAIN_PARAMETER);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                while (plan.next()) {
+                    if ("ALL".equalsIgnoreCase(plan.getString("type"))) {
+                        fullScans++;
+                        log.warn("Full table scan on {} (about {} rows, possible keys: {}) in {}: {}",
+                                plan.getString("table"), plan.getLong("rows"), plan.getString("possible_keys"),
+                                method, sql);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            log.debug("Query plan check: could not EXPLAIN {} from {}: {}", sql, method, ex.getMessage());
+        }
+        return fullScans;
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.bookstore.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Sends @Transactional(readOnly = true) work to the replica and everything else to the primary.
+// The read-only flag is only known once the transaction has begun, after Hibernate asked for its
+// connection, so this must sit behind a LazyConnectionDataSourceProxy that defers the lookup to
+// the first statement. A read-write transaction pins its user to the primary once it commits.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaStickiness stickiness;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaStickiness stickiness) {
+        this.stickiness = stickiness;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        stickiness.pin(username);
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        return username != null && stickiness.isPinned(username) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
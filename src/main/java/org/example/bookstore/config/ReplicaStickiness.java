@@ -0,0 +1,30 @@
+package org.example.bookstore.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+// Users whose own write committed less than the sticky window ago. Their read-only work stays on
+// the primary until the replica has had time to catch up, so a cart or order they just changed
+// never reads back stale. Per instance: behind a load balancer this relies on the window being
+// longer than the replica lag, not on every node seeing the pin.
+public class ReplicaStickiness {
+
+    private final Cache<String, Boolean> pinned;
+
+    public ReplicaStickiness(Duration window, long maxUsers) {
+        this.pinned = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void pin(String username) {
+        pinned.put(username, Boolean.TRUE);
+    }
+
+    public boolean isPinned(String username) {
+        return pinned.getIfPresent(username) != null;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.bookstore.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Records the SQL Hibernate sends on the current thread between start() and stop(); a no-op otherwise.
+public class SqlCaptureInspector implements StatementInspector {
+
+    private static final ThreadLocal<Set<String>> CAPTURED = new ThreadLocal<>();
+
+    public static void start() {
+        CAPTURED.set(new LinkedHashSet<>());
+    }
+
+    public static Set<String> stop() {
+        Set<String> statements = CAPTURED.get();
+        CAPTURED.remove();
+        return statements == null ? Set.of() : statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Set<String> statements = CAPTURED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
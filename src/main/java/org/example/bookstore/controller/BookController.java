@@ -2,7 +2,10 @@ package org.example.bookstore.controller;
 
 import org.example.bookstore.model.Book;
 import org.example.bookstore.payload.BookDTO;
+import org.example.bookstore.payload.SuggestionDTO;
+import org.example.bookstore.payload.request.BookFilterRequest;
 import org.example.bookstore.payload.request.CreateBookRequest;
+import org.example.bookstore.payload.response.BookFilterResponse;
 import org.example.bookstore.payload.response.BookResponse;
 import org.example.bookstore.payload.response.CloudinaryResponse;
 import org.example.bookstore.payload.response.CreateBookResponse;
@@ -26,6 +29,7 @@ public class BookController {
     private static  final String ADD_BOOK = "Add Book successfully";
     private static  final String GET_BOOK = "GET Book information successfully";
     private static  final String UPLOAD_IMAGE_BOOK = "Upload Image Book successfully";
+    private static  final String SUGGEST_BOOK = "GET suggestions successfully";
 
 
     private final BookService bookService;
@@ -97,13 +101,18 @@ public class BookController {
 
 
 
+    // Passing "after" (empty for the first page) switches the listing endpoints to keyset paging:
+    // pageNumber is ignored and the next page is requested with the returned nextCursor.
     @GetMapping("/getAllBooks")
     public ResponseEntity<BookResponse> getAllBooks(
             @RequestParam(defaultValue = "0") Integer pageNumber,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortOrder) {
-        BookResponse books = bookService.getAllBooks(pageNumber, pageSize, sortBy, sortOrder);
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            @RequestParam(required = false) String after) {
+        BookResponse books = after != null
+                ? bookService.getAllBooksAfter(after, pageSize, sortBy, sortOrder)
+                : bookService.getAllBooks(pageNumber, pageSize, sortBy, sortOrder);
         return ResponseEntity.ok(books);
     }
 
@@ -114,8 +123,11 @@ public class BookController {
         @RequestParam(defaultValue = "0") Integer pageNumber,
         @RequestParam(defaultValue = "10") Integer pageSize,
         @RequestParam(defaultValue = "title") String sortBy,
-        @RequestParam(defaultValue = "asc") String sortOrder) {
-        BookResponse books = bookService.getAllBooksByAuthor(authorName, pageNumber, pageSize, sortBy, sortOrder);
+        @RequestParam(defaultValue = "asc") String sortOrder,
+        @RequestParam(required = false) String after) {
+        BookResponse books = after != null
+                ? bookService.getAllBooksByAuthorAfter(authorName, after, pageSize, sortBy, sortOrder)
+                : bookService.getAllBooksByAuthor(authorName, pageNumber, pageSize, sortBy, sortOrder);
         return ResponseEntity.ok(books);
     }
 
@@ -126,11 +138,50 @@ public class BookController {
             @RequestParam(defaultValue = "0") Integer pageNumber,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortOrder) {
-        BookResponse books = bookService.getAllBooksByCategory(category, pageNumber, pageSize, sortBy, sortOrder);
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            @RequestParam(required = false) String after) {
+        BookResponse books = after != null
+                ? bookService.getAllBooksByCategoryAfter(category, after, pageSize, sortBy, sortOrder)
+                : bookService.getAllBooksByCategory(category, pageNumber, pageSize, sortBy, sortOrder);
         return ResponseEntity.ok(books);
     }
 
+    // Full-text search over title, author, publisher and description; words may be prefixes or
+    // slightly misspelled. Results come back ranked by relevance.
+    @GetMapping("/search")
+    public ResponseEntity<BookResponse> searchBooks(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") Integer pageNumber,
+            @RequestParam(defaultValue = "10") Integer pageSize) {
+        BookResponse books = bookService.searchBooks(query, pageNumber, pageSize);
+        return ResponseEntity.ok(books);
+    }
+
+    // Combined filter, e.g. ?category=Fiction&category=Poetry&language=vi&minPrice=50000&inStock=true.
+    // Besides the page, returns per-facet counts for building the filter sidebar.
+    @GetMapping("/filter")
+    public ResponseEntity<BookFilterResponse> filterBooks(BookFilterRequest request) {
+        BookFilterResponse books = bookService.filterBooks(request);
+        return ResponseEntity.ok(books);
+    }
+
+    // Typeahead for the search box: titles and author names starting with q (or one of its words),
+    // most sold first.
+    @GetMapping("/suggest")
+    public ResponseEntity<DataResponse> suggest(
+            @RequestParam(value = "q", defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        List<SuggestionDTO> suggestions = bookService.suggest(prefix, limit);
+        DataResponse dataResponse = DataResponse.builder()
+                .code(HttpStatus.OK.value())
+                .data(suggestions)
+                .message(SUGGEST_BOOK)
+                .status(HttpStatus.OK)
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity.status(dataResponse.getStatus()).body(dataResponse);
+    }
+
     @PutMapping("updateBook/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<BookDTO> updateBook(@PathVariable UUID id, @RequestBody BookDTO bookDTO) {
@@ -1,9 +1,11 @@
 package org.example.bookstore.controller;
 
 import org.example.bookstore.payload.ReviewDTO;
+import org.example.bookstore.payload.ReviewSummaryDTO;
 import org.example.bookstore.payload.request.ReviewCreate;
 import org.example.bookstore.payload.request.ReviewUpdate;
 import org.example.bookstore.payload.response.DataResponse;
+import org.example.bookstore.payload.response.ReviewResponse;
 import org.example.bookstore.service.Interface.ReviewService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -78,6 +80,37 @@ public class ReviewController {
         return ResponseEntity.status(HttpStatus.OK).body(dataResponse);
     }
 
+    // One page of pageSize reviews, newest first. Without "after" (or with it empty) this is the
+    // first page; the next page is requested with the returned nextCursor.
+    @GetMapping("/getReviewPageByBookId/{bookId}")
+    public ResponseEntity<DataResponse> getReviewPageByBookId(
+            @PathVariable UUID bookId,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String after) {
+        ReviewResponse reviewResponse = reviewService.getReviewsByBookIdAfter(bookId, after, pageSize);
+        DataResponse dataResponse = DataResponse.builder()
+                .code(HttpStatus.OK.value())
+                .status(HttpStatus.OK)
+                .timestamp(LocalDateTime.now())
+                .message("Review found!")
+                .data(reviewResponse).build();
+
+        return ResponseEntity.status(HttpStatus.OK).body(dataResponse);
+    }
+
+    @GetMapping("/getReviewSummary/{bookId}")
+    public ResponseEntity<DataResponse> getReviewSummary(@PathVariable UUID bookId) {
+        ReviewSummaryDTO reviewSummaryDTO = reviewService.getReviewSummary(bookId);
+        DataResponse dataResponse = DataResponse.builder()
+                .code(HttpStatus.OK.value())
+                .status(HttpStatus.OK)
+                .timestamp(LocalDateTime.now())
+                .message("Review summary found!")
+                .data(reviewSummaryDTO)
+                .build();
+        return ResponseEntity.status(HttpStatus.OK).body(dataResponse);
+    }
+
     @GetMapping("/getReviewById/{reviewId}")
     public ResponseEntity<DataResponse> getReviewById(@PathVariable UUID reviewId) {
         ReviewDTO reviewDTO = reviewService.getReviewById(reviewId);
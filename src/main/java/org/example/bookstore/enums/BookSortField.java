@@ -0,0 +1,49 @@
+package org.example.bookstore.enums;
+
+import lombok.Getter;
+import org.example.bookstore.exception.AppException;
+import org.example.bookstore.payload.BookDTO;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The public sort keys of the book catalog, for both offset and keyset (seek) pagination.
+ * Every key is combined with {@code id} as a tiebreaker so the ordering is total, and each
+ * ({@code key}, id) pair has a composite index on {@code book}; anything else is rejected
+ * instead of turning into a filesort over the whole table.
+ */
+@Getter
+public enum BookSortField {
+    TITLE("title", BookDTO::getTitle, value -> value),
+    PRICE("price", BookDTO::getPrice, BigDecimal::new),
+    SOLD("sold", BookDTO::getSold, Long::valueOf),
+    AVERAGE_RATING("averageRating", BookDTO::getAverageRating, Double::valueOf),
+    ID("id", BookDTO::getId, UUID::fromString);
+
+    private final String property;
+    private final Function<BookDTO, Object> extractor;
+    private final Function<String, Object> parser;
+
+    BookSortField(String property, Function<BookDTO, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public static BookSortField fromProperty(String property) {
+        for (BookSortField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new AppException(ErrorCode.INVALID_SORT_FIELD);
+    }
+
+    public Sort toSort(boolean ascending) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return this == ID ? Sort.by(direction, property) : Sort.by(direction, property, ID.property);
+    }
+}
@@ -43,6 +43,8 @@ public enum ErrorCode {
     UNAUTHORIZED_ACTION(728,"You have not permission to do this action",HttpStatus.BAD_REQUEST),
     REVIEW_ALREADY_EXISTS(729,"You already reviewed the book",HttpStatus.BAD_REQUEST),
     REVIEW_ERROR_DELETE(730,"You have not permission to delete the review",HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR(731,"Invalid or expired page cursor",HttpStatus.BAD_REQUEST),
+    INVALID_SORT_FIELD(732,"Sorting by this field is not supported",HttpStatus.BAD_REQUEST),
 
 
 
@@ -0,0 +1,35 @@
+package org.example.bookstore.enums;
+
+import lombok.Getter;
+import org.example.bookstore.exception.AppException;
+import org.springframework.data.domain.Sort;
+
+/**
+ * The public sort keys of the user listing. Username and email carry unique indexes, so they
+ * order the table on their own; unindexed columns are rejected.
+ */
+@Getter
+public enum UserSortField {
+    USERNAME("username"),
+    EMAIL("email"),
+    ID("id");
+
+    private final String property;
+
+    UserSortField(String property) {
+        this.property = property;
+    }
+
+    public static UserSortField fromProperty(String property) {
+        for (UserSortField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new AppException(ErrorCode.INVALID_SORT_FIELD);
+    }
+
+    public Sort toSort(boolean ascending) {
+        return Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, property);
+    }
+}
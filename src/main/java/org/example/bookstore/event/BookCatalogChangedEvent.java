@@ -0,0 +1,34 @@
+package org.example.bookstore.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// Published whenever the searchable side of the catalog changes, so in-memory indexes over the
+// book table can follow it. A null bookId means "many books changed" (author or category rename)
+// and listeners should rebuild from the database.
+@Getter
+@AllArgsConstructor
+public class BookCatalogChangedEvent {
+
+    private final UUID bookId;
+
+    private final boolean deleted;
+
+    public static BookCatalogChangedEvent saved(UUID bookId) {
+        return new BookCatalogChangedEvent(bookId, false);
+    }
+
+    public static BookCatalogChangedEvent deleted(UUID bookId) {
+        return new BookCatalogChangedEvent(bookId, true);
+    }
+
+    public static BookCatalogChangedEvent all() {
+        return new BookCatalogChangedEvent(null, false);
+    }
+
+    public boolean isFullRebuild() {
+        return bookId == null;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.bookstore.mapper;
+
+import org.example.bookstore.model.Author;
+import org.example.bookstore.payload.AuthorDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuthorMapper {
+
+    public AuthorDTO toDTO(Author author) {
+        if (author == null) {
+            return null;
+        }
+        return new AuthorDTO(
+                author.getId(),
+                author.getName(),
+                author.getBio(),
+                author.getEmail(),
+                author.getAddress(),
+                author.getPhone()
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.bookstore.mapper;
+
+import org.example.bookstore.model.Book;
+import org.example.bookstore.payload.BookDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookMapper {
+
+    public BookDTO toDTO(Book book) {
+        if (book == null) {
+            return null;
+        }
+        BookDTO bookDTO = new BookDTO();
+        bookDTO.setId(book.getId());
+        bookDTO.setTitle(book.getTitle());
+        bookDTO.setDescription(book.getDescription());
+        bookDTO.setPrice(book.getPrice());
+        bookDTO.setPublisher(book.getPublisher());
+        bookDTO.setIsbn(book.getIsbn());
+        bookDTO.setLanguage(book.getLanguage());
+        bookDTO.setImagePath(book.getImagePath());
+        bookDTO.setStock(book.getStock());
+        bookDTO.setSold(book.getSold());
+        bookDTO.setAverageRating(book.getAverageRating());
+        bookDTO.setCategoryName(book.getCategoryName());
+        bookDTO.setAuthorName(book.getAuthorName());
+        return bookDTO;
+    }
+}
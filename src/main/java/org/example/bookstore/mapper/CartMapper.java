@@ -0,0 +1,44 @@
+package org.example.bookstore.mapper;
+
+import org.example.bookstore.model.Cart;
+import org.example.bookstore.model.CartItem;
+import org.example.bookstore.payload.CartDTO;
+import org.example.bookstore.payload.CartItemDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class CartMapper {
+
+    private final BookMapper bookMapper;
+
+    public CartMapper(BookMapper bookMapper) {
+        this.bookMapper = bookMapper;
+    }
+
+    public CartDTO toDTO(Cart cart) {
+        if (cart == null) {
+            return null;
+        }
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setCartId(cart.getId());
+        cartDTO.setTotalPrice(cart.getTotalPrice());
+        List<CartItemDTO> cartItemDTOS = new ArrayList<>();
+        if (cart.getCartItems() != null) {
+            cart.getCartItems().forEach(cartItem -> cartItemDTOS.add(toCartItemDTO(cartItem)));
+        }
+        cartDTO.setCartItem(cartItemDTOS);
+        return cartDTO;
+    }
+
+    public CartItemDTO toCartItemDTO(CartItem cartItem) {
+        CartItemDTO cartItemDTO = new CartItemDTO();
+        cartItemDTO.setCartItemId(cartItem.getId());
+        cartItemDTO.setQuantity(cartItem.getQuantity());
+        cartItemDTO.setBook(bookMapper.toDTO(cartItem.getBook()));
+        cartItemDTO.setBookPrice(cartItem.getBookPrice());
+        return cartItemDTO;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.bookstore.mapper;
+
+import org.example.bookstore.model.Category;
+import org.example.bookstore.payload.CategoryDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CategoryMapper {
+
+    public CategoryDTO toDTO(Category category) {
+        if (category == null) {
+            return null;
+        }
+        return new CategoryDTO(category.getId(), category.getName());
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.bookstore.mapper;
+
+import org.example.bookstore.model.Order;
+import org.example.bookstore.model.OrderItem;
+import org.example.bookstore.model.User;
+import org.example.bookstore.payload.OrderDTO;
+import org.example.bookstore.payload.OrderItemDTO;
+import org.example.bookstore.payload.UserOrderDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class OrderMapper {
+
+    private final BookMapper bookMapper;
+
+    public OrderMapper(BookMapper bookMapper) {
+        this.bookMapper = bookMapper;
+    }
+
+    public OrderDTO toDTO(Order order) {
+        return toDTO(order, order.getOrderItems());
+    }
+
+    // Used right after placing an order, when the items are known but not yet attached to the order.
+    public OrderDTO toDTO(Order order, List<OrderItem> orderItems) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setOrderId(order.getId());
+        orderDTO.setUser(toUserOrderDTO(order.getUser()));
+        orderDTO.setOrderDate(order.getOrderDate());
+        orderDTO.setPaymentMethod(order.getPaymentMethod() != null ? order.getPaymentMethod().getPaymentMethod() : null);
+        orderDTO.setDeliveryMethod(order.getDeliveryMethod() != null ? order.getDeliveryMethod().getDeliveryName() : null);
+        orderDTO.setTotalPrice(order.getTotalPrice());
+        orderDTO.setShippingPrice(order.getShippingPrice());
+        orderDTO.setTotalAmount(order.getTotalAmount());
+        orderDTO.setOrderStatus(order.getOrderStatus());
+        List<OrderItemDTO> orderItemDTOS = new ArrayList<>();
+        if (orderItems != null) {
+            orderItems.forEach(orderItem -> orderItemDTOS.add(toOrderItemDTO(orderItem)));
+        }
+        orderDTO.setOrderItem(orderItemDTOS);
+        return orderDTO;
+    }
+
+    public OrderItemDTO toOrderItemDTO(OrderItem orderItem) {
+        return new OrderItemDTO(
+                orderItem.getId(),
+                bookMapper.toDTO(orderItem.getBook()),
+                orderItem.getQuantity(),
+                orderItem.getProductPrice()
+        );
+    }
+
+    public UserOrderDTO toUserOrderDTO(User user) {
+        if (user == null) {
+            return null;
+        }
+        return new UserOrderDTO(
+                user.getId(),
+                user.getLastName(),
+                user.getPhoneNumber(),
+                user.getEmail(),
+                user.getAddress()
+        );
+    }
+}
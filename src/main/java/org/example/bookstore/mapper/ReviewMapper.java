@@ -0,0 +1,36 @@
+package org.example.bookstore.mapper;
+
+import org.example.bookstore.model.Review;
+import org.example.bookstore.model.ReviewSummary;
+import org.example.bookstore.payload.ReviewDTO;
+import org.example.bookstore.payload.ReviewSummaryDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ReviewMapper {
+
+    public ReviewDTO toDTO(Review review) {
+        return new ReviewDTO(
+                review.getId(),
+                review.getContent(),
+                review.getRatePoint(),
+                review.getCreatedAt(),
+                review.getBook() != null ? review.getBook().getTitle() : null,
+                review.getUser() != null ? review.getUser().getUsername() : null
+        );
+    }
+
+    public ReviewSummaryDTO toSummaryDTO(ReviewSummary summary) {
+        Map<Integer, Long> starCounts = new LinkedHashMap<>();
+        starCounts.put(1, summary.getStar1());
+        starCounts.put(2, summary.getStar2());
+        starCounts.put(3, summary.getStar3());
+        starCounts.put(4, summary.getStar4());
+        starCounts.put(5, summary.getStar5());
+        double average = summary.getTotal() > 0 ? (double) summary.getRatingSum() / summary.getTotal() : 0;
+        return new ReviewSummaryDTO(summary.getBookId(), starCounts, summary.getTotal(), average);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.bookstore.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StopWatch;
+
+import java.util.concurrent.TimeUnit;
+
+// Counters for the shop itself, next to the latency timers: how many orders and cart additions
+// went through, and how often a cart addition was turned away for lack of stock. Orders and cart
+// additions are counted once their transaction commits, so a rolled-back checkout is not counted.
+// Checkout phases get one timer per phase (bookstore.checkout.phase{phase=...}).
+@Component
+public class BusinessMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Counter ordersPlaced;
+
+    private final Counter cartAdditions;
+
+    private final Counter stockRejections;
+
+    public BusinessMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.ordersPlaced = Counter.builder("bookstore.orders.placed")
+                .description("Orders placed")
+                .register(registry);
+        this.cartAdditions = Counter.builder("bookstore.cart.additions")
+                .description("Books added to a cart")
+                .register(registry);
+        this.stockRejections = Counter.builder("bookstore.stock.rejections")
+                .description("Cart additions rejected with BOOK_STOCK_PROBLEM")
+                .register(registry);
+    }
+
+    public void orderPlaced() {
+        incrementAfterCommit(ordersPlaced);
+    }
+
+    public void cartAddition() {
+        incrementAfterCommit(cartAdditions);
+    }
+
+    public void stockRejection() {
+        stockRejections.increment();
+    }
+
+    public void checkoutPhases(StopWatch stopWatch) {
+        for (StopWatch.TaskInfo task : stopWatch.getTaskInfo()) {
+            Timer.builder("bookstore.checkout.phase")
+                    .description("Time spent in each phase of placeOrder")
+                    .tag("phase", task.getTaskName())
+                    .register(registry)
+                    .record(task.getTimeNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void incrementAfterCommit(Counter counter) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
+    }
+}
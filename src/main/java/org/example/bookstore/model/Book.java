@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
@@ -17,13 +19,22 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "book")
+@Table(name = "book", indexes = {
+        @Index(name = "idx_book_title_id", columnList = "book_title, id"),
+        @Index(name = "idx_book_price_id", columnList = "price, id"),
+        @Index(name = "idx_book_sold_id", columnList = "sold, id"),
+        @Index(name = "idx_book_rating_id", columnList = "average_rating, id"),
+        @Index(name = "idx_book_author_name", columnList = "author_name, book_title, id"),
+        @Index(name = "idx_book_category_name", columnList = "category_name, book_title, id")
+})
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
-    @Column(name = "book_title")
+    // Sort keys (title, price, sold, averageRating) are NOT NULL so keyset cursors can always carry
+    // them; older schemas need db/migration-book-sort-keys-not-null.sql.
+    @Column(name = "book_title", nullable = false)
     private String title;
 
     @Column(name = "book_description")
@@ -56,14 +67,23 @@ public class Book {
     @Column(name = "image_path")
     private String imagePath;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
     private Author author;
 
+    // Copies of category.name and author.name so catalog listings read the book table alone.
+    // The setters below keep them in step with the associations; renames go through
+    // BookRepository.renameCategory / renameAuthor.
+    @Column(name = "category_name")
+    private String categoryName;
+
+    @Column(name = "author_name")
+    private String authorName;
+
     @OneToMany(mappedBy = "book")
     private List<Review> reviews;
 
@@ -73,8 +93,27 @@ public class Book {
     @ManyToMany(mappedBy = "likedBooks")
     private Set<User> likedByUsers = new HashSet<>();
 
-    @Column(name = "average_rating")
+    @ColumnDefault("0")
+    @Column(name = "average_rating", nullable = false)
     private Double averageRating = 0.0;
 
-
-}
\ No newline at end of file
+    // Running totals behind averageRating, kept in step by BookRepository.applyRatingDelta. Same
+    // aggregate as review_summary.total/rating_sum; see ReviewServiceImpl.applyRatingChange.
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount = 0L;
+
+    public void setCategory(Category category) {
+        this.category = category;
+        this.categoryName = category != null ? category.getName() : null;
+    }
+
+    public void setAuthor(Author author) {
+        this.author = author;
+        this.authorName = author != null ? author.getName() : null;
+    }
+}
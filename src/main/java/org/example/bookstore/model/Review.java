@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -14,10 +15,14 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "review")
+@Table(name = "review", indexes = {
+        @Index(name = "idx_review_book_created", columnList = "book_id, created_at, id"),
+        @Index(name = "idx_review_book_user", columnList = "book_id, user_id"),
+        @Index(name = "idx_review_user", columnList = "user_id")
+})
 public class Review {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Column(name = "content")
@@ -26,7 +31,8 @@ public class Review {
     @Column(name = "rate_point")
     private int ratePoint;
 
-    @Column(name = "created_at")
+    // The keyset pages carry it in their cursor; older schemas need db/migration-review-created-at-not-null.sql.
+    @Column(name = "created_at", nullable = false)
     private LocalDate createdAt;
 
     @ManyToOne
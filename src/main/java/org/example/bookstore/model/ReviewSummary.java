@@ -0,0 +1,53 @@
+package org.example.bookstore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.UUID;
+
+// Per-book review aggregates, one row per reviewed book, kept up to date by
+// ReviewSummaryRepository.applyDelta on every review write. total/ratingSum duplicate
+// book.rating_count/rating_sum; see ReviewServiceImpl.applyRatingChange.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "review_summary")
+public class ReviewSummary {
+    @Id
+    @Column(name = "book_id")
+    private UUID bookId;
+
+    @ColumnDefault("0")
+    @Column(name = "star_1", nullable = false)
+    private long star1;
+
+    @ColumnDefault("0")
+    @Column(name = "star_2", nullable = false)
+    private long star2;
+
+    @ColumnDefault("0")
+    @Column(name = "star_3", nullable = false)
+    private long star3;
+
+    @ColumnDefault("0")
+    @Column(name = "star_4", nullable = false)
+    private long star4;
+
+    @ColumnDefault("0")
+    @Column(name = "star_5", nullable = false)
+    private long star5;
+
+    @ColumnDefault("0")
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
 
 
 import java.util.HashSet;
@@ -19,10 +20,13 @@ import java.util.UUID;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "user")
+@Table(name = "user", indexes = {
+        @Index(name = "uk_user_username", columnList = "username", unique = true),
+        @Index(name = "uk_user_email", columnList = "email", unique = true)
+})
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Size(min = 3, max = 20, message = "First Name must be between 5 and 20 characters long")
@@ -22,6 +22,9 @@ public class BookDTO {
     private String imagePath;
     private Long stock;
     private Long sold;
+    // maintained from reviews, never taken from the client
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double averageRating;
     @JsonProperty("category")
     private String categoryName;
     @JsonProperty("author")
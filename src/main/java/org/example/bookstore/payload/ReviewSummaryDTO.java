@@ -0,0 +1,20 @@
+package org.example.bookstore.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReviewSummaryDTO {
+
+    private UUID bookId;
+    // star (1-5) -> number of reviews
+    private Map<Integer, Long> starCounts;
+    private long totalReviews;
+    private double averageRating;
+}
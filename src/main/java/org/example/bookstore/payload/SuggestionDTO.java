@@ -0,0 +1,20 @@
+package org.example.bookstore.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuggestionDTO {
+
+    public enum Type { TITLE, AUTHOR }
+
+    private String text;
+    private Type type;
+    // set for TITLE suggestions, so the client can open the book directly
+    private UUID bookId;
+}
@@ -0,0 +1,28 @@
+package org.example.bookstore.payload.request;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Bound from query parameters: values inside one facet are OR-ed (category=a&category=b),
+// facets and ranges are AND-ed together. Anything left null is not filtered on.
+@Data
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookFilterRequest {
+
+    private List<String> category;
+    private List<String> author;
+    private List<String> language;
+    private List<String> publisher;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Double minRating;
+    private Boolean inStock;
+    private Integer pageNumber = 0;
+    private Integer pageSize = 10;
+
+}
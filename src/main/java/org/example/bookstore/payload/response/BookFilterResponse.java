@@ -0,0 +1,25 @@
+package org.example.bookstore.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.bookstore.payload.BookDTO;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFilterResponse {
+
+	private List<BookDTO> content;
+	private Integer pageNumber;
+	private Integer pageSize;
+	private Long totalElements;
+	private Integer totalPages;
+	private boolean lastPage;
+	// facet -> value -> number of books the page would have with that value selected
+	private Map<String, Map<String, Integer>> facets;
+
+}
@@ -18,5 +18,6 @@ public class BookResponse {
 	private Long totalElements;
 	private Integer totalPages;
 	private boolean lastPage;
+	private String nextCursor;
 	
 }
@@ -0,0 +1,19 @@
+package org.example.bookstore.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.bookstore.payload.ReviewDTO;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewResponse {
+
+    private List<ReviewDTO> content;
+    private Integer pageSize;
+    private boolean lastPage;
+    private String nextCursor;
+}
@@ -4,8 +4,10 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import org.example.bookstore.model.Author;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,5 +15,8 @@ import java.util.UUID;
 public interface AuthorRepository extends JpaRepository<Author, UUID> {
     boolean existsByName(String name);
 
+    @Query("SELECT a.name FROM Author a")
+    List<String> findAllNames();
+
     Optional<Author> findByName(@Size(min = 3, max = 20, message = "Author Name must be between 5 and 20 characters long") @Pattern(regexp = "^[a-zA-Z]*$", message = "Author Name must not contain numbers or special characters") String name);
 }
@@ -1,21 +1,122 @@
 package org.example.bookstore.repository;
 
 import org.example.bookstore.model.Book;
+import org.example.bookstore.payload.BookDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, UUID> {
-    @Query(value = "SELECT * FROM book WHERE book_title COLLATE utf8mb4_bin LIKE CONCAT('%', :title, '%')", nativeQuery = true)
-    Book findByName(String title);
+public interface BookRepository extends JpaRepository<Book, UUID>, BookRepositoryCustom {
+    boolean existsByTitle(String title);
 
     Page<Book> findByCategory_Name(String category, Pageable pageable);
     Page<Book> findByAuthor_Name(String authorName, Pageable pageable);
 
+    // Listing projections: author and category names come from the denormalized columns on book,
+    // so a catalog page is a single-table read.
+    @Query(value = "SELECT new org.example.bookstore.payload.BookDTO(b.id, b.title, b.description, b.price, b.publisher, " +
+            "b.isbn, b.language, b.imagePath, b.stock, b.sold, b.averageRating, b.categoryName, b.authorName) " +
+            "FROM Book b",
+            countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookDTO> findAllBookDTOs(Pageable pageable);
 
+    @Query(value = "SELECT new org.example.bookstore.payload.BookDTO(b.id, b.title, b.description, b.price, b.publisher, " +
+            "b.isbn, b.language, b.imagePath, b.stock, b.sold, b.averageRating, b.categoryName, b.authorName) " +
+            "FROM Book b WHERE b.authorName = :authorName",
+            countQuery = "SELECT COUNT(b) FROM Book b WHERE b.authorName = :authorName")
+    Page<BookDTO> findBookDTOsByAuthorName(String authorName, Pageable pageable);
+
+    @Query(value = "SELECT new org.example.bookstore.payload.BookDTO(b.id, b.title, b.description, b.price, b.publisher, " +
+            "b.isbn, b.language, b.imagePath, b.stock, b.sold, b.averageRating, b.categoryName, b.authorName) " +
+            "FROM Book b WHERE b.categoryName = :categoryName",
+            countQuery = "SELECT COUNT(b) FROM Book b WHERE b.categoryName = :categoryName")
+    Page<BookDTO> findBookDTOsByCategoryName(String categoryName, Pageable pageable);
+
+    // Rows for a page of search hits, looked up by primary key; the caller restores the ranking.
+    @Query("SELECT new org.example.bookstore.payload.BookDTO(b.id, b.title, b.description, b.price, b.publisher, " +
+            "b.isbn, b.language, b.imagePath, b.stock, b.sold, b.averageRating, b.categoryName, b.authorName) " +
+            "FROM Book b WHERE b.id IN :ids")
+    List<BookDTO> findBookDTOsByIdIn(Collection<UUID> ids);
+
+    // What BookFacetIndex keeps in memory, loaded in id order batches and re-read per changed book.
+    String FACET_ROW_SELECT = "SELECT b.id AS id, b.title AS title, b.categoryName AS category, " +
+            "b.authorName AS author, b.language AS language, b.publisher AS publisher, b.price AS price, " +
+            "b.averageRating AS averageRating, b.stock AS stock " +
+            "FROM Book b ";
+
+    @Query(FACET_ROW_SELECT + "ORDER BY b.id")
+    List<FacetRow> findFacetRows(Limit limit);
+
+    @Query(FACET_ROW_SELECT + "WHERE b.id > :lastId ORDER BY b.id")
+    List<FacetRow> findFacetRowsAfter(UUID lastId, Limit limit);
+
+    @Query(FACET_ROW_SELECT + "WHERE b.id IN :ids")
+    List<FacetRow> findFacetRowsByIdIn(Collection<UUID> ids);
+
+    // Stock moves as a single conditional UPDATE instead of read-check-save, so concurrent
+    // carts cannot oversell or overwrite each other. Returns 0 when there is not enough stock.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Book b SET b.stock = b.stock - :quantity WHERE b.id = :id AND b.stock >= :quantity")
+    int reserveStock(UUID id, long quantity);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Book b SET b.stock = b.stock + :quantity WHERE b.id = :id")
+    int releaseStock(UUID id, long quantity);
+
+    // O(1) rating maintenance for a review write. averageRating is assigned first on purpose:
+    // MySQL evaluates SET left to right with already-updated values, standard SQL uses the old
+    // ones, and with this order both see the old sum/count.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Book b SET " +
+            "b.averageRating = CASE WHEN b.ratingCount + :countDelta > 0 " +
+            "THEN (b.ratingSum + :sumDelta) * 1.0 / (b.ratingCount + :countDelta) ELSE 0 END, " +
+            "b.ratingSum = b.ratingSum + :sumDelta, " +
+            "b.ratingCount = b.ratingCount + :countDelta " +
+            "WHERE b.id = :id")
+    int applyRatingDelta(UUID id, long sumDelta, long countDelta);
+
+    // Renames rewrite the denormalized name on every book of the author/category in one statement.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Book b SET b.authorName = :name WHERE b.author.id = :authorId")
+    int renameAuthor(UUID authorId, String name);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Book b SET b.categoryName = :name WHERE b.category.id = :categoryId")
+    int renameCategory(UUID categoryId, String name);
+
+    interface FacetRow {
+        UUID getId();
+
+        String getTitle();
+
+        String getCategory();
+
+        String getAuthor();
+
+        String getLanguage();
+
+        String getPublisher();
+
+        BigDecimal getPrice();
+
+        Double getAverageRating();
+
+        Long getStock();
+    }
 }
@@ -0,0 +1,28 @@
+package org.example.bookstore.repository;
+
+import org.example.bookstore.enums.BookSortField;
+import org.example.bookstore.payload.BookDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Keyset page of the catalog: rows strictly after ({@code lastValue}, {@code lastId}) in
+     * ({@code sortField}, id) order. No offset and no count query are issued.
+     * A null {@code lastId} starts from the beginning; null filters are ignored.
+     */
+    List<BookDTO> findBookDTOsAfter(String authorName, String categoryName, BookSortField sortField,
+                                    boolean ascending, Object lastValue, UUID lastId, int limit);
+
+    /**
+     * Adds each quantity to the {@code sold} counter of its book in one UPDATE statement
+     * (a CASE over the ids), so an order costs one round trip however many lines it has.
+     */
+    int incrementSold(Map<UUID, Long> quantities);
+
+    /** Returns each quantity to the stock of its book, in one UPDATE like {@link #incrementSold}. */
+    int releaseStock(Map<UUID, Long> quantities);
+}
@@ -0,0 +1,101 @@
+package org.example.bookstore.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.example.bookstore.enums.BookSortField;
+import org.example.bookstore.payload.BookDTO;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookDTO> findBookDTOsAfter(String authorName, String categoryName, BookSortField sortField,
+                                           boolean ascending, Object lastValue, UUID lastId, int limit) {
+        String field = "b." + sortField.getProperty();
+        String comparator = ascending ? ">" : "<";
+        String direction = ascending ? "ASC" : "DESC";
+
+        StringBuilder jpql = new StringBuilder("SELECT new org.example.bookstore.payload.BookDTO(b.id, b.title, ")
+                .append("b.description, b.price, b.publisher, b.isbn, b.language, b.imagePath, b.stock, b.sold, ")
+                .append("b.averageRating, b.categoryName, b.authorName) FROM Book b WHERE 1 = 1");
+        if (authorName != null) {
+            jpql.append(" AND b.authorName = :authorName");
+        }
+        if (categoryName != null) {
+            jpql.append(" AND b.categoryName = :categoryName");
+        }
+        if (lastId != null) {
+            if (sortField == BookSortField.ID) {
+                jpql.append(" AND b.id ").append(comparator).append(" :lastId");
+            } else {
+                // the leading range on the sort key alone lets any optimizer seek the (key, id) index;
+                // the plain OR form is only turned into a range scan by some of them
+                jpql.append(" AND ").append(field).append(' ').append(comparator).append("= :lastValue")
+                        .append(" AND (").append(field).append(' ').append(comparator).append(" :lastValue")
+                        .append(" OR b.id ").append(comparator).append(" :lastId)");
+            }
+        }
+        jpql.append(" ORDER BY ").append(field).append(' ').append(direction);
+        if (sortField != BookSortField.ID) {
+            jpql.append(", b.id ").append(direction);
+        }
+
+        TypedQuery<BookDTO> query = entityManager.createQuery(jpql.toString(), BookDTO.class);
+        if (authorName != null) {
+            query.setParameter("authorName", authorName);
+        }
+        if (categoryName != null) {
+            query.setParameter("categoryName", categoryName);
+        }
+        if (lastId != null) {
+            query.setParameter("lastId", lastId);
+            if (sortField != BookSortField.ID) {
+                query.setParameter("lastValue", lastValue);
+            }
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int incrementSold(Map<UUID, Long> quantities) {
+        return addPerBook("sold", quantities);
+    }
+
+    @Override
+    @Transactional
+    public int releaseStock(Map<UUID, Long> quantities) {
+        return addPerBook("stock", quantities);
+    }
+
+    private int addPerBook(String property, Map<UUID, Long> quantities) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        StringBuilder jpql = new StringBuilder("UPDATE Book b SET b.").append(property)
+                .append(" = b.").append(property).append(" + CASE");
+        for (int i = 0; i < quantities.size(); i++) {
+            jpql.append(" WHEN b.id = :id").append(i).append(" THEN :quantity").append(i);
+        }
+        jpql.append(" ELSE 0 END WHERE b.id IN :ids");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        int i = 0;
+        for (Map.Entry<UUID, Long> entry : quantities.entrySet()) {
+            query.setParameter("id" + i, entry.getKey());
+            query.setParameter("quantity" + i, entry.getValue());
+            i++;
+        }
+        query.setParameter("ids", quantities.keySet());
+        return query.executeUpdate();
+    }
+}
@@ -20,4 +20,9 @@ public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
     @Query("DELETE FROM CartItem ci WHERE ci.cart.id = ?1 AND ci.book.id = ?2")
     void deleteCartItemByCartIdAndBookId(UUID cartId, UUID bookId);
 
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = ?1")
+    int deleteAllByCartId(UUID cartId);
+
 }
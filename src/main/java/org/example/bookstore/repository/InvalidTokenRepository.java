@@ -2,11 +2,30 @@ package org.example.bookstore.repository;
 
 import org.example.bookstore.model.TokenInvalid;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 public interface InvalidTokenRepository extends JpaRepository<TokenInvalid, UUID> {
-    boolean existsByToken(String token);
-
     boolean existsById(UUID uuid);
+
+    // Only what TokenRevocationService keeps in memory; the token string itself is never read back.
+    @Query("SELECT t.id AS id, t.expires AS expires FROM TokenInvalid t WHERE t.expires > :now")
+    List<RevokedTokenId> findActiveIds(Date now);
+
+    // MySQL DELETE ... LIMIT keeps every batch a short transaction; served by idx_token_invalid_expires.
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM token_invalid WHERE expires < :now LIMIT :batchSize", nativeQuery = true)
+    int deleteExpiredBatch(Date now, int batchSize);
+
+    interface RevokedTokenId {
+        UUID getId();
+
+        Date getExpires();
+    }
 }
@@ -3,10 +3,13 @@ package org.example.bookstore.repository;
 import org.example.bookstore.model.Book;
 import org.example.bookstore.model.Review;
 import org.example.bookstore.model.User;
+import org.example.bookstore.payload.ReviewDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,4 +21,17 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
     @Query("select r from Review r where r.user.id = ?1")
     List<Review> findAllReviewsByUserId(UUID userId);
+
+    // Review listings of a book, newest first: title and username come from the same statement,
+    // and the (createdAt, id) order lets the next page seek past the last row served.
+    @Query("SELECT new org.example.bookstore.payload.ReviewDTO(r.id, r.content, r.ratePoint, r.createdAt, b.title, u.username) " +
+            "FROM Review r JOIN r.book b LEFT JOIN r.user u WHERE b.id = :bookId " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findReviewDTOsByBookId(UUID bookId, Limit limit);
+
+    @Query("SELECT new org.example.bookstore.payload.ReviewDTO(r.id, r.content, r.ratePoint, r.createdAt, b.title, u.username) " +
+            "FROM Review r JOIN r.book b LEFT JOIN r.user u WHERE b.id = :bookId " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findReviewDTOsByBookIdAfter(UUID bookId, LocalDate createdAt, UUID id, Limit limit);
 }
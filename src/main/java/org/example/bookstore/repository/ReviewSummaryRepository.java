@@ -0,0 +1,26 @@
+package org.example.bookstore.repository;
+
+import org.example.bookstore.model.ReviewSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Repository
+public interface ReviewSummaryRepository extends JpaRepository<ReviewSummary, UUID> {
+
+    // Upsert with deltas: creates the row on a book's first review and otherwise adds to the
+    // counters in place, so concurrent review writes never read-modify-write the summary.
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO review_summary (book_id, star_1, star_2, star_3, star_4, star_5, total, rating_sum) " +
+            "VALUES (:bookId, :star1, :star2, :star3, :star4, :star5, :total, :ratingSum) " +
+            "ON DUPLICATE KEY UPDATE star_1 = star_1 + VALUES(star_1), star_2 = star_2 + VALUES(star_2), " +
+            "star_3 = star_3 + VALUES(star_3), star_4 = star_4 + VALUES(star_4), star_5 = star_5 + VALUES(star_5), " +
+            "total = total + VALUES(total), rating_sum = rating_sum + VALUES(rating_sum)",
+            nativeQuery = true)
+    int applyDelta(UUID bookId, long star1, long star2, long star3, long star4, long star5, long total, long ratingSum);
+}
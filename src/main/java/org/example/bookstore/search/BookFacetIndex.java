@@ -0,0 +1,295 @@
+package org.example.bookstore.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.event.BookCatalogChangedEvent;
+import org.example.bookstore.payload.request.BookFilterRequest;
+import org.example.bookstore.repository.BookRepository;
+import org.example.bookstore.repository.BookRepository.FacetRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Bitset indexes over the filterable book attributes. Each book gets an ordinal (books are numbered
+// in title order, so matches come out alphabetically); every facet value keeps the set of ordinals
+// that have it, and price/rating/stock sit in plain arrays. A filter is a few BitSet ANDs and the
+// facet counts are one pass over the matches, with no GROUP BY on MySQL. Readers work on an
+// immutable snapshot; writers build a new one from the rows kept here and swap it in.
+@Component
+@Slf4j
+public class BookFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String AUTHOR = "author";
+    public static final String LANGUAGE = "language";
+    public static final String PUBLISHER = "publisher";
+    public static final String IN_STOCK = "inStock";
+
+    private final BookRepository bookRepository;
+
+    private final int loadBatchSize;
+
+    private final int maxFacetValues;
+
+    // id -> last row seen; only touched under the monitor
+    private final Map<UUID, Row> rows = new HashMap<>();
+
+    private volatile Snapshot snapshot = new Snapshot(new ArrayList<>());
+
+    public BookFacetIndex(BookRepository bookRepository,
+                          @Value("${app.search.rebuild-batch-size:1000}") int loadBatchSize,
+                          @Value("${app.facet.max-values:50}") int maxFacetValues) {
+        this.bookRepository = bookRepository;
+        this.loadBatchSize = loadBatchSize;
+        this.maxFacetValues = maxFacetValues;
+    }
+
+    // Stock and average rating change with every cart and review without a catalog event, so
+    // the whole index is also reloaded on a short schedule.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.facet.refresh-interval:PT1M}",
+            initialDelayString = "${app.facet.refresh-interval:PT1M}")
+    public synchronized void reload() {
+        Map<UUID, Row> loaded = new HashMap<>();
+        List<FacetRow> batch = bookRepository.findFacetRows(Limit.of(loadBatchSize));
+        while (!batch.isEmpty()) {
+            batch.forEach(row -> loaded.put(row.getId(), Row.of(row)));
+            if (batch.size() < loadBatchSize) {
+                break;
+            }
+            batch = bookRepository.findFacetRowsAfter(batch.get(batch.size() - 1).getId(), Limit.of(loadBatchSize));
+        }
+        rows.clear();
+        rows.putAll(loaded);
+        snapshot = new Snapshot(new ArrayList<>(rows.values()));
+        log.debug("Indexed {} books for faceted filtering", rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(BookCatalogChangedEvent event) {
+        if (event.isFullRebuild()) {
+            reload();
+            return;
+        }
+        rows.remove(event.getBookId());
+        if (!event.isDeleted()) {
+            bookRepository.findFacetRowsByIdIn(List.of(event.getBookId()))
+                    .forEach(row -> rows.put(row.getId(), Row.of(row)));
+        }
+        snapshot = new Snapshot(new ArrayList<>(rows.values()));
+    }
+
+    /**
+     * Ids of the matching books for the page ({@code offset}, {@code limit}) in title order, the
+     * total number of matches and, per facet, how many books each value would give. A facet's
+     * counts ignore its own selection, so the other values of a selected facet stay visible.
+     */
+    public Result filter(BookFilterRequest request, int offset, int limit) {
+        Snapshot current = snapshot;
+        BitSet matches = current.match(request, null);
+        List<UUID> ids = new ArrayList<>(Math.min(limit, matches.cardinality()));
+        int skipped = 0;
+        for (int doc = matches.nextSetBit(0); doc >= 0 && ids.size() < limit; doc = matches.nextSetBit(doc + 1)) {
+            if (skipped++ >= offset) {
+                ids.add(current.ids[doc]);
+            }
+        }
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (Facet facet : current.facets.values()) {
+            BitSet base = facet.isSelected(request) ? current.match(request, facet.name) : matches;
+            facets.put(facet.name, facet.count(base, maxFacetValues));
+        }
+        BitSet stockBase = Boolean.TRUE.equals(request.getInStock()) ? current.match(request, IN_STOCK) : matches;
+        BitSet inStock = (BitSet) stockBase.clone();
+        inStock.and(current.inStock);
+        Map<String, Integer> stockCounts = new LinkedHashMap<>();
+        stockCounts.put("true", inStock.cardinality());
+        stockCounts.put("false", stockBase.cardinality() - inStock.cardinality());
+        facets.put(IN_STOCK, stockCounts);
+
+        return new Result(ids, matches.cardinality(), facets);
+    }
+
+    // detached copy of a FacetRow projection, which is a proxy over the JDBC tuple
+    private record Row(UUID id, String title, String category, String author, String language, String publisher,
+                       double price, double rating, boolean inStock) {
+
+        static Row of(FacetRow row) {
+            return new Row(row.getId(), row.getTitle(), row.getCategory(), row.getAuthor(), row.getLanguage(),
+                    row.getPublisher(),
+                    row.getPrice() == null ? 0 : row.getPrice().doubleValue(),
+                    row.getAverageRating() == null ? 0 : row.getAverageRating(),
+                    row.getStock() != null && row.getStock() > 0);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final List<UUID> ids;
+        private final long totalMatches;
+        private final Map<String, Map<String, Integer>> facets;
+    }
+
+    private static final class Snapshot {
+
+        private final int size;
+
+        // ordinal -> book id
+        private final UUID[] ids;
+
+        private final double[] prices;
+
+        private final double[] ratings;
+
+        private final BitSet inStock;
+
+        private final Map<String, Facet> facets = new LinkedHashMap<>();
+
+        Snapshot(List<Row> rows) {
+            rows.sort(Comparator.comparing(Row::title, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(Row::id));
+            size = rows.size();
+            ids = new UUID[size];
+            prices = new double[size];
+            ratings = new double[size];
+            inStock = new BitSet(size);
+            for (int doc = 0; doc < size; doc++) {
+                Row row = rows.get(doc);
+                ids[doc] = row.id();
+                prices[doc] = row.price();
+                ratings[doc] = row.rating();
+                if (row.inStock()) {
+                    inStock.set(doc);
+                }
+            }
+            addFacet(CATEGORY, rows, Row::category, BookFilterRequest::getCategory);
+            addFacet(AUTHOR, rows, Row::author, BookFilterRequest::getAuthor);
+            addFacet(LANGUAGE, rows, Row::language, BookFilterRequest::getLanguage);
+            addFacet(PUBLISHER, rows, Row::publisher, BookFilterRequest::getPublisher);
+        }
+
+        private void addFacet(String name, List<Row> rows, Function<Row, String> attribute,
+                              Function<BookFilterRequest, List<String>> selection) {
+            facets.put(name, new Facet(name, rows, attribute, selection));
+        }
+
+        // every filter of the request except the one named by skip
+        BitSet match(BookFilterRequest request, String skip) {
+            BitSet result = new BitSet(size);
+            result.set(0, size);
+            for (Facet facet : facets.values()) {
+                if (!facet.name.equals(skip) && facet.isSelected(request)) {
+                    result.and(facet.docsFor(facet.selection.apply(request), size));
+                }
+            }
+            if (Boolean.TRUE.equals(request.getInStock()) && !IN_STOCK.equals(skip)) {
+                result.and(inStock);
+            }
+            double minPrice = request.getMinPrice() == null ? Double.NEGATIVE_INFINITY : request.getMinPrice().doubleValue();
+            double maxPrice = request.getMaxPrice() == null ? Double.POSITIVE_INFINITY : request.getMaxPrice().doubleValue();
+            double minRating = request.getMinRating() == null ? Double.NEGATIVE_INFINITY : request.getMinRating();
+            if (request.getMinPrice() != null || request.getMaxPrice() != null || request.getMinRating() != null) {
+                for (int doc = result.nextSetBit(0); doc >= 0; doc = result.nextSetBit(doc + 1)) {
+                    if (prices[doc] < minPrice || prices[doc] > maxPrice || ratings[doc] < minRating) {
+                        result.clear(doc);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    // A single-valued attribute: value -> ordinals for filtering, ordinal -> value for counting.
+    private static final class Facet {
+
+        private final String name;
+
+        private final Function<BookFilterRequest, List<String>> selection;
+
+        private final List<String> values = new ArrayList<>();
+
+        private final Map<String, Integer> valueIds = new HashMap<>();
+
+        private final List<BitSet> docs = new ArrayList<>();
+
+        // ordinal -> value id, -1 when the book has no value
+        private final int[] docValues;
+
+        Facet(String name, List<Row> rows, Function<Row, String> attribute,
+              Function<BookFilterRequest, List<String>> selection) {
+            this.name = name;
+            this.selection = selection;
+            this.docValues = new int[rows.size()];
+            for (int doc = 0; doc < rows.size(); doc++) {
+                String value = attribute.apply(rows.get(doc));
+                if (value == null) {
+                    docValues[doc] = -1;
+                    continue;
+                }
+                int valueId = valueIds.computeIfAbsent(value, v -> {
+                    values.add(v);
+                    docs.add(new BitSet());
+                    return values.size() - 1;
+                });
+                docValues[doc] = valueId;
+                docs.get(valueId).set(doc);
+            }
+        }
+
+        boolean isSelected(BookFilterRequest request) {
+            List<String> selected = selection.apply(request);
+            return selected != null && !selected.isEmpty();
+        }
+
+        BitSet docsFor(List<String> selected, int size) {
+            BitSet union = new BitSet(size);
+            for (String value : selected) {
+                Integer valueId = valueIds.get(value);
+                if (valueId != null) {
+                    union.or(docs.get(valueId));
+                }
+            }
+            return union;
+        }
+
+        // the most frequent values among base, at most limit of them
+        Map<String, Integer> count(BitSet base, int limit) {
+            int[] counts = new int[values.size()];
+            for (int doc = base.nextSetBit(0); doc >= 0; doc = base.nextSetBit(doc + 1)) {
+                if (docValues[doc] >= 0) {
+                    counts[docValues[doc]]++;
+                }
+            }
+            List<Integer> present = new ArrayList<>();
+            for (int valueId = 0; valueId < counts.length; valueId++) {
+                if (counts[valueId] > 0) {
+                    present.add(valueId);
+                }
+            }
+            present.sort(Comparator.comparingInt((Integer valueId) -> counts[valueId]).reversed()
+                    .thenComparing(values::get));
+            Map<String, Integer> result = new LinkedHashMap<>();
+            for (int valueId : present.subList(0, Math.min(limit, present.size()))) {
+                result.put(values.get(valueId), counts[valueId]);
+            }
+            return result;
+        }
+    }
+}
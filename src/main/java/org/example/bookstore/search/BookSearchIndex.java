@@ -0,0 +1,258 @@
+package org.example.bookstore.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.example.bookstore.enums.BookSortField;
+import org.example.bookstore.event.BookCatalogChangedEvent;
+import org.example.bookstore.payload.BookDTO;
+import org.example.bookstore.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// In-process inverted index over the searchable book columns, so catalog search never runs a
+// LIKE '%...%' scan on MySQL. The book table stays the source of truth: the index is rebuilt from it
+// at startup and follows it through BookCatalogChangedEvent. Only ids are stored; the rows shown to
+// the client are read back from the database by primary key.
+@Component
+@Slf4j
+public class BookSearchIndex {
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String AUTHOR = "author";
+    static final String PUBLISHER = "publisher";
+    static final String DESCRIPTION = "description";
+
+    // field -> weight; a title match outranks an author match, which outranks the rest
+    private static final Map<String, Float> FIELD_BOOSTS = new LinkedHashMap<>();
+
+    static {
+        FIELD_BOOSTS.put(TITLE, 3f);
+        FIELD_BOOSTS.put(AUTHOR, 2f);
+        FIELD_BOOSTS.put(PUBLISHER, 1f);
+        FIELD_BOOSTS.put(DESCRIPTION, 1f);
+    }
+
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final float FUZZY_WEIGHT = 0.3f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final BookRepository bookRepository;
+
+    private final int rebuildBatchSize;
+
+    private final Analyzer analyzer;
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    public BookSearchIndex(BookRepository bookRepository,
+                           @Value("${app.search.rebuild-batch-size:1000}") int rebuildBatchSize) throws IOException {
+        this.bookRepository = bookRepository;
+        this.rebuildBatchSize = rebuildBatchSize;
+        // lowercase + accent folding, so "tieng viet" finds "Tiếng Việt"
+        this.analyzer = CustomAnalyzer.builder()
+                .withTokenizer("standard")
+                .addTokenFilter("lowercase")
+                .addTokenFilter("asciifolding")
+                .build();
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    // Runs after the publishing transaction commits (or right away when there is none), so the
+    // index never shows a book that was rolled back.
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(BookCatalogChangedEvent event) {
+        if (event.isFullRebuild()) {
+            rebuild();
+            return;
+        }
+        try {
+            Term idTerm = new Term(ID, event.getBookId().toString());
+            if (event.isDeleted()) {
+                writer.deleteDocuments(idTerm);
+            } else {
+                List<BookDTO> books = bookRepository.findBookDTOsByIdIn(List.of(event.getBookId()));
+                if (books.isEmpty()) {
+                    writer.deleteDocuments(idTerm);
+                } else {
+                    writer.updateDocument(idTerm, toDocument(books.get(0)));
+                }
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Searches see the previous snapshot until the refresh at the end, so a rebuild never serves
+    // a half-filled index.
+    public synchronized void rebuild() {
+        try {
+            writer.deleteAll();
+            int count = 0;
+            UUID lastId = null;
+            List<BookDTO> batch;
+            do {
+                batch = bookRepository.findBookDTOsAfter(null, null, BookSortField.ID, true,
+                        null, lastId, rebuildBatchSize);
+                for (BookDTO book : batch) {
+                    writer.addDocument(toDocument(book));
+                }
+                count += batch.size();
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == rebuildBatchSize);
+            searcherManager.maybeRefreshBlocking();
+            log.info("Indexed {} books for search", count);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Ranked ids of the books matching every word of {@code text}, for the page
+     * ({@code offset}, {@code limit}). Each word may hit any field exactly, as a prefix or
+     * within a small edit distance; exact and title/author hits score higher.
+     */
+    public Hits search(String text, int offset, int limit) {
+        Query query = buildQuery(text);
+        if (query == null) {
+            return new Hits(List.of(), 0);
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // an exact total is cheap at catalog size and keeps totalPages honest
+                TopDocs topDocs = searcher.search(query,
+                        new TopScoreDocCollectorManager(offset + limit, Integer.MAX_VALUE));
+                List<UUID> ids = new ArrayList<>();
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = offset; i < scoreDocs.length; i++) {
+                    ids.add(UUID.fromString(searcher.storedFields().document(scoreDocs[i].doc).get(ID)));
+                }
+                return new Hits(ids, topDocs.totalHits.value);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    Query buildQuery(String text) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+                Term fieldTerm = new Term(field.getKey(), term);
+                float boost = field.getValue();
+                anyField.add(new BoostQuery(new TermQuery(fieldTerm), boost), BooleanClause.Occur.SHOULD);
+                if (term.length() >= MIN_PREFIX_LENGTH) {
+                    anyField.add(new BoostQuery(new PrefixQuery(fieldTerm), boost * PREFIX_WEIGHT),
+                            BooleanClause.Occur.SHOULD);
+                }
+                if (term.length() >= MIN_FUZZY_LENGTH) {
+                    anyField.add(new BoostQuery(new FuzzyQuery(fieldTerm), boost * FUZZY_WEIGHT),
+                            BooleanClause.Occur.SHOULD);
+                }
+            }
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return terms;
+    }
+
+    private Document toDocument(BookDTO book) {
+        Document document = new Document();
+        document.add(new StringField(ID, book.getId().toString(), Field.Store.YES));
+        addText(document, TITLE, book.getTitle());
+        addText(document, AUTHOR, book.getAuthorName());
+        addText(document, PUBLISHER, book.getPublisher());
+        addText(document, DESCRIPTION, book.getDescription());
+        return document;
+    }
+
+    private void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Hits {
+        private final List<UUID> ids;
+        private final long totalHits;
+    }
+}
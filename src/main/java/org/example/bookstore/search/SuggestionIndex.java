@@ -0,0 +1,361 @@
+package org.example.bookstore.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.enums.BookSortField;
+import org.example.bookstore.event.BookCatalogChangedEvent;
+import org.example.bookstore.payload.BookDTO;
+import org.example.bookstore.payload.SuggestionDTO;
+import org.example.bookstore.repository.AuthorRepository;
+import org.example.bookstore.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Typeahead over book titles and author names. Lookups run against an immutable snapshot: keys sorted
+// for a binary-searched prefix range, plus a max segment tree over the popularity weights so the top-k
+// of any range comes out in O(k log n) however many keys share the prefix. Writers patch the sorted
+// key list and swap in a new snapshot, so readers never lock.
+@Component
+@Slf4j
+public class SuggestionIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // nobody types further than this into a search box; longer keys only cost memory
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final BookRepository bookRepository;
+
+    private final AuthorRepository authorRepository;
+
+    private final int maxEntries;
+
+    private final int maxWordStarts;
+
+    private final int loadBatchSize;
+
+    // writer-side state, only touched under the monitor
+    private final Map<UUID, BookSource> books = new HashMap<>();
+
+    private final Map<String, Entry> authors = new HashMap<>();
+
+    private final Map<String, Long> authorSold = new HashMap<>();
+
+    // every key of every entry, sorted by text
+    private List<Key> keys = new ArrayList<>();
+
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+
+    public SuggestionIndex(BookRepository bookRepository, AuthorRepository authorRepository,
+                           @Value("${app.suggest.max-entries:200000}") int maxEntries,
+                           @Value("${app.suggest.max-word-starts:4}") int maxWordStarts,
+                           @Value("${app.search.rebuild-batch-size:1000}") int loadBatchSize) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.maxEntries = maxEntries;
+        this.maxWordStarts = maxWordStarts;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    // The full reload also picks up sold counters, which move with every order and publish no event,
+    // and re-applies the max-entries cap that single book additions may have pushed past.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.suggest.refresh-interval:PT10M}",
+            initialDelayString = "${app.suggest.refresh-interval:PT10M}")
+    public synchronized void reload() {
+        List<BookDTO> loaded = new ArrayList<>();
+        UUID lastId = null;
+        List<BookDTO> batch;
+        do {
+            batch = bookRepository.findBookDTOsAfter(null, null, BookSortField.ID, true,
+                    null, lastId, loadBatchSize);
+            loaded.addAll(batch);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == loadBatchSize);
+
+        books.clear();
+        authors.clear();
+        authorSold.clear();
+        List<Entry> entries = new ArrayList<>();
+        for (BookDTO book : loaded) {
+            long sold = book.getSold() == null ? 0 : book.getSold();
+            Entry entry = book.getTitle() == null ? null
+                    : newEntry(new SuggestionDTO(book.getTitle(), SuggestionDTO.Type.TITLE, book.getId()), sold);
+            books.put(book.getId(), new BookSource(book.getAuthorName(), sold, entry));
+            if (entry != null) {
+                entries.add(entry);
+            }
+            if (book.getAuthorName() != null) {
+                authorSold.merge(book.getAuthorName(), sold, Long::sum);
+            }
+        }
+        for (String name : authorRepository.findAllNames()) {
+            authorSold.putIfAbsent(name, 0L);
+        }
+        authorSold.forEach((name, sold) -> {
+            Entry entry = newEntry(new SuggestionDTO(name, SuggestionDTO.Type.AUTHOR, null), sold);
+            authors.put(name, entry);
+            entries.add(entry);
+        });
+
+        // bounded footprint: past the cap only the most popular suggestions are kept
+        if (entries.size() > maxEntries) {
+            entries.sort(Comparator.comparingLong(Entry::weight).reversed());
+            entries.subList(maxEntries, entries.size()).clear();
+        }
+        List<Key> sorted = new ArrayList<>();
+        for (Entry entry : entries) {
+            for (String text : entry.keyTexts()) {
+                sorted.add(new Key(text, entry));
+            }
+        }
+        sorted.sort(Comparator.comparing(Key::text));
+        keys = sorted;
+        snapshot = new Snapshot(keys);
+        log.info("Loaded {} suggestions ({} keys) for typeahead", entries.size(), keys.size());
+    }
+
+    // A single book edit only moves its own keys and its author's; nothing is reloaded or re-sorted.
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(BookCatalogChangedEvent event) {
+        if (event.isFullRebuild()) {
+            reload();
+            return;
+        }
+        removeBook(event.getBookId());
+        if (!event.isDeleted()) {
+            bookRepository.findBookDTOsByIdIn(List.of(event.getBookId())).forEach(this::addBook);
+        }
+        snapshot = new Snapshot(keys);
+    }
+
+    /** Up to {@code limit} titles and author names starting with {@code prefix} (or with one of its words), most sold first. */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = truncate(normalize(prefix));
+        if (key.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        return snapshot.lookup(key, limit);
+    }
+
+    private void addBook(BookDTO book) {
+        long sold = book.getSold() == null ? 0 : book.getSold();
+        Entry entry = null;
+        if (book.getTitle() != null) {
+            entry = newEntry(new SuggestionDTO(book.getTitle(), SuggestionDTO.Type.TITLE, book.getId()), sold);
+            insertKeys(entry);
+        }
+        books.put(book.getId(), new BookSource(book.getAuthorName(), sold, entry));
+        if (book.getAuthorName() != null) {
+            updateAuthor(book.getAuthorName(), sold);
+        }
+    }
+
+    private void removeBook(UUID id) {
+        BookSource book = books.remove(id);
+        if (book == null) {
+            return;
+        }
+        if (book.entry() != null) {
+            removeKeys(book.entry());
+        }
+        if (book.author() != null) {
+            updateAuthor(book.author(), -book.sold());
+        }
+    }
+
+    private void updateAuthor(String name, long soldDelta) {
+        long sold = authorSold.merge(name, soldDelta, Long::sum);
+        Entry old = authors.remove(name);
+        if (old != null) {
+            removeKeys(old);
+        }
+        Entry entry = newEntry(new SuggestionDTO(name, SuggestionDTO.Type.AUTHOR, null), sold);
+        authors.put(name, entry);
+        insertKeys(entry);
+    }
+
+    private void insertKeys(Entry entry) {
+        for (String text : entry.keyTexts()) {
+            keys.add(lowerBound(keys, text), new Key(text, entry));
+        }
+    }
+
+    private void removeKeys(Entry entry) {
+        for (String text : entry.keyTexts()) {
+            for (int i = lowerBound(keys, text); i < keys.size() && keys.get(i).text().equals(text); i++) {
+                if (keys.get(i).entry() == entry) {
+                    keys.remove(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    private Entry newEntry(SuggestionDTO suggestion, long weight) {
+        String[] words = normalize(suggestion.getText()).split(" ");
+        List<String> texts = new ArrayList<>();
+        for (int w = 0; w < words.length && w < maxWordStarts; w++) {
+            if (!words[w].isEmpty()) {
+                texts.add(truncate(String.join(" ", Arrays.copyOfRange(words, w, words.length))));
+            }
+        }
+        return new Entry(suggestion, weight, texts.toArray(new String[0]));
+    }
+
+    private static int lowerBound(List<Key> keys, String text) {
+        int low = 0;
+        int high = keys.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys.get(mid).text().compareTo(text) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // case-, accent- and punctuation-insensitive, so "tieng v" finds "Tiếng Việt"
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd').replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        return NON_WORD.matcher(folded).replaceAll(" ").trim();
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private record BookSource(String author, long sold, Entry entry) {
+    }
+
+    // one suggestion and the normalized keys it is reachable from: the whole text, then from each later word
+    private record Entry(SuggestionDTO suggestion, long weight, String[] keyTexts) {
+    }
+
+    private record Key(String text, Entry entry) {
+    }
+
+    private static final class Snapshot {
+
+        private final String[] keys;
+
+        private final Entry[] entries;
+
+        private final long[] weights;
+
+        // iterative segment tree of argmax over weights; leaves at [n, 2n)
+        private final int[] tree;
+
+        Snapshot(List<Key> sorted) {
+            int n = sorted.size();
+            this.keys = new String[n];
+            this.entries = new Entry[n];
+            this.weights = new long[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = sorted.get(i).text();
+                entries[i] = sorted.get(i).entry();
+                weights[i] = entries[i].weight();
+            }
+            this.tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+            }
+        }
+
+        List<SuggestionDTO> lookup(String prefix, int limit) {
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            List<SuggestionDTO> result = new ArrayList<>(limit);
+            if (from >= to) {
+                return result;
+            }
+            // best-first over sub-ranges: take the heaviest key, then split its range around it
+            PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                    Comparator.comparingLong((int[] range) -> weights[range[2]]).reversed()
+                            .thenComparingInt(range -> range[2]));
+            ranges.add(new int[]{from, to, argMax(from, to)});
+            Set<Entry> seen = new HashSet<>();
+            while (!ranges.isEmpty() && result.size() < limit) {
+                int[] range = ranges.poll();
+                int best = range[2];
+                // a suggestion reachable from several of its words is returned once
+                if (seen.add(entries[best])) {
+                    result.add(entries[best].suggestion());
+                }
+                if (range[0] < best) {
+                    ranges.add(new int[]{range[0], best, argMax(range[0], best)});
+                }
+                if (best + 1 < range[1]) {
+                    ranges.add(new int[]{best + 1, range[1], argMax(best + 1, range[1])});
+                }
+            }
+            return result;
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // position of the heaviest key in [from, to)
+        private int argMax(int from, int to) {
+            int n = keys.length;
+            int best = from;
+            for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    best = better(best, tree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    best = better(best, tree[--r]);
+                }
+            }
+            return best;
+        }
+
+        private int better(int a, int b) {
+            if (weights[a] != weights[b]) {
+                return weights[a] > weights[b] ? a : b;
+            }
+            return Math.min(a, b);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package org.example.bookstore.security;
 
-import org.example.bookstore.repository.InvalidTokenRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
@@ -22,18 +21,13 @@ public class CustomJwtDecode implements JwtDecoder {
     private String signingKey;
 
     @Autowired
-    InvalidTokenRepository invalidTokenRepository;
+    TokenRevocationService tokenRevocationService;
 
     private NimbusJwtDecoder nimbusJwtDecoder = null;
 
     @Override
     public Jwt decode(String token) throws JwtException {
 
-        boolean existsByToken = invalidTokenRepository.existsByToken(token);
-        if (existsByToken) {
-            throw new JwtException("Invalid token");
-        }
-
         if(Objects.isNull(nimbusJwtDecoder)) {
             SecretKeySpec secretKeySpec = new SecretKeySpec(signingKey.getBytes(), "HS512");
             nimbusJwtDecoder = NimbusJwtDecoder
@@ -41,6 +35,10 @@ public class CustomJwtDecode implements JwtDecoder {
                     .macAlgorithm(MacAlgorithm.HS512)
                     .build();
         }
-        return nimbusJwtDecoder.decode(token);
+        Jwt jwt = nimbusJwtDecoder.decode(token);
+        if (tokenRevocationService.isRevoked(JwtTokenProvider.tokenId(jwt.getClaims()))) {
+            throw new JwtException("Invalid token");
+        }
+        return jwt;
     }
 }
@@ -9,7 +9,6 @@ import lombok.experimental.NonFinal;
 import org.example.bookstore.enums.ErrorCode;
 import org.example.bookstore.exception.AppException;
 import org.example.bookstore.model.User;
-import org.example.bookstore.repository.InvalidTokenRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -29,7 +28,7 @@ public class JWTUtils {
     private String signingKey;
 
     @Autowired
-    InvalidTokenRepository invalidTokenRepository;
+    TokenRevocationService tokenRevocationService;
 
     public SignedJWT verifyToken(String token) throws JOSEException, ParseException {
         JWSVerifier verifier = new MACVerifier(signingKey);
@@ -43,7 +42,7 @@ public class JWTUtils {
         if (!(verified && expiryTime.after(new Date())))
             throw new AppException(ErrorCode.UNAUTHENTICATED);
 
-        if (invalidTokenRepository.existsById(UUID.fromString(signedJWT.getJWTClaimsSet().getJWTID())))
+        if (tokenRevocationService.isRevoked(UUID.fromString(signedJWT.getJWTClaimsSet().getJWTID())))
             throw new AppException(ErrorCode.UNAUTHENTICATED);
 
         return signedJWT;
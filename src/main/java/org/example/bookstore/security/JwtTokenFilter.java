@@ -1,12 +1,15 @@
 package org.example.bookstore.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,22 +19,50 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class JwtTokenFilter extends OncePerRequestFilter {
-    private JwtTokenProvider jwtTokenProvider;
-    private UserDetailsService userDetailsService;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserDetailsService userDetailsService;
+    private final UserStatusChecker userStatusChecker;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${app.security.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    @Value("${app.security.user-status-check:true}")
+    private boolean userStatusCheck;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String token = jwtTokenProvider.resolveToken(request);
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(jwtTokenProvider.getUsername(token));
-            UsernamePasswordAuthenticationToken authentication
-                    = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        Claims claims = token != null ? jwtTokenProvider.parseIfValid(token) : null;
+        if (claims != null && !tokenRevocationService.isRevoked(jwtTokenProvider.getTokenId(claims))) {
+            request.setAttribute(JwtTokenProvider.CLAIMS_ATTRIBUTE, claims);
+            UserDetails userDetails = statelessPrincipal
+                    ? principalFromClaims(claims)
+                    : userDetailsService.loadUserByUsername(claims.getSubject());
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authentication
+                        = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(request, response);
     }
+
+    // Same principal type CustomUserDetailsService returns, but built from the signed claims;
+    // the password is never needed after login, so it is left empty.
+    private UserDetails principalFromClaims(Claims claims) {
+        String username = claims.getSubject();
+        if (userStatusCheck && !userStatusChecker.isActive(username)) {
+            return null;
+        }
+        return User.withUsername(username)
+                .password("")
+                .authorities(jwtTokenProvider.getAuthorities(claims))
+                .build();
+    }
 }
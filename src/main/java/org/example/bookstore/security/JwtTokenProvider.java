@@ -7,19 +7,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.bookstore.enums.ErrorCode;
 import org.example.bookstore.exception.AppException;
 import org.example.bookstore.model.User;
+import org.example.bookstore.model.UuidV7Generator;
 import org.example.bookstore.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
+import java.util.Set;
 import java.util.StringJoiner;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -28,6 +35,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class JwtTokenProvider {
 
+    // Request attribute under which JwtTokenFilter stores the verified claims of the bearer token.
+    public static final String CLAIMS_ATTRIBUTE = JwtTokenProvider.class.getName() + ".claims";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
@@ -38,11 +48,16 @@ public class JwtTokenProvider {
     private CustomUserDetailsService userDetailsService;
 
     private Key key;
+
+    // Built once: the parser is immutable and thread-safe, so every request reuses it.
+    private final JwtParser jwtParser;
+
     @Autowired
     private UserRepository userRepository;
 
     public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret) {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
 
@@ -58,10 +73,9 @@ public class JwtTokenProvider {
         String authorities = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
-        long tokenId = System.currentTimeMillis();
         return Jwts.builder()
                 .setSubject(userDetails.getUsername())
-                .claim("id", tokenId)
+                .setId(UuidV7Generator.next().toString())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS512)
@@ -80,11 +94,15 @@ public class JwtTokenProvider {
         return null;
     }
 
-    // Xác thực token
-    public boolean validateToken(String token) {
+    // Verifies the signature and expiry once and returns every claim; throws JwtException if invalid.
+    public Claims parse(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    // Same as parse, but logs the failure and returns null instead of throwing.
+    public Claims parseIfValid(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            return parse(token);
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -93,86 +111,84 @@ public class JwtTokenProvider {
             log.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
-        } catch (SecurityException ex) {
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
             log.error("Invalid JWT signature");
+        } catch (JwtException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    // Claims already verified by JwtTokenFilter for this request, parsing only if the filter did not run.
+    public Claims resolveClaims(HttpServletRequest request, String token) {
+        Object claims = request.getAttribute(CLAIMS_ATTRIBUTE);
+        return claims instanceof Claims ? (Claims) claims : parse(token);
+    }
+
+    // Xác thực token
+    public boolean validateToken(String token) {
+        return parseIfValid(token) != null;
     }
 
     // Lấy username từ token
     public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parse(token).getSubject();
     }
 
     public UUID getTokenId(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("id", UUID.class);
+        return getTokenId(parse(token));
+    }
+
+    public UUID getTokenId(Claims claims) {
+        return tokenId(claims);
+    }
+
+    // Works on both jjwt Claims and Spring's Jwt#getClaims(). Tokens issued before the jti claim
+    // only carried a millisecond "id", so a stable id is derived from it and the subject.
+    public static UUID tokenId(Map<String, Object> claims) {
+        Object jti = claims.get(Claims.ID);
+        if (jti != null) {
+            return UUID.fromString(jti.toString());
+        }
+        String legacyId = claims.get(Claims.SUBJECT) + ":" + claims.get("id");
+        return UUID.nameUUIDFromBytes(legacyId.getBytes(StandardCharsets.UTF_8));
     }
 
     public Date getExpirationDate(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getExpiration();
+        return parse(token).getExpiration();
     }
-    public String refreshToken(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            // Lấy thông tin username và quyền hạn từ token cũ
-            String username = claims.getSubject();
-            String authorities = claims.get("scope", String.class);
-            long tokenId = System.currentTimeMillis();
-
-
-            // Kiểm tra nếu token đã hết hạn
-            Date now = new Date();
-            Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
-
-            // Tạo token mới
-            return Jwts.builder()
-                    .setSubject(username)
-                    .claim("id", tokenId)
-                    .claim("scope", authorities)
-                    .setIssuedAt(now)
-                    .setExpiration(expiryDate)
-                    .signWith(key, SignatureAlgorithm.HS512)
-                    .setHeaderParam("typ", "JWT")
-                    .compact();
-        } catch (ExpiredJwtException ex) {
-            Claims claims = ex.getClaims();
-            String username = claims.getSubject();
-            String authorities = claims.get("scope", String.class);
-
-            Date now = new Date();
-            Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
-            return Jwts.builder()
-                    .setSubject(username)
-                    .claim("scope", authorities)
-                    .setIssuedAt(now)
-                    .setExpiration(expiryDate)
-                    .signWith(key, SignatureAlgorithm.HS512)
-                    .setHeaderParam("typ", "JWT")
-                    .compact();
-        } catch (Exception ex) {
-            log.error("Cannot refresh token: {}", ex.getMessage());
-            return null;
+
+    public String refreshToken(Claims claims) {
+        // Lấy thông tin username và quyền hạn từ token cũ
+        String username = claims.getSubject();
+        String authorities = claims.get("scope", String.class);
+
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
+
+        // Tạo token mới
+        return Jwts.builder()
+                .setSubject(username)
+                .setId(UuidV7Generator.next().toString())
+                .claim("scope", authorities)
+                .setIssuedAt(now)
+                .setExpiration(expiryDate)
+                .signWith(key, SignatureAlgorithm.HS512)
+                .setHeaderParam("typ", "JWT")
+                .compact();
+    }
+
+    // Authorities carried by the scope claim, prefixed the same way CustomUserDetailsService does.
+    public Set<GrantedAuthority> getAuthorities(Claims claims) {
+        String scope = claims.get("scope", String.class);
+        if (!StringUtils.hasText(scope)) {
+            return Collections.emptySet();
         }
+        return Arrays.stream(scope.split(" "))
+                .filter(StringUtils::hasText)
+                .map(roleName -> new SimpleGrantedAuthority(
+                        roleName.startsWith("ROLE_") ? roleName : "ROLE_" + roleName))
+                .collect(Collectors.toSet());
     }
 
     private String buildScope(User user) {
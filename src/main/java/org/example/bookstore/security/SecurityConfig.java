@@ -4,6 +4,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.example.bookstore.enums.Role;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -20,12 +21,16 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 @EnableWebSecurity
 @Configuration
 @EnableMethodSecurity
@@ -39,6 +44,9 @@ public class SecurityConfig {
             "/api/book/getAllBooks",
             "/api/book/getAllBookByAuthor/{authorName}",
             "/api/book/getAllBooksByCategory/{category}",
+            "/api/book/search",
+            "/api/book/suggest",
+            "/api/book/filter",
             "/api/category/getCategoryById/{id}",
             "/api/category/getAllCategories",
             "/api/cart/addBookToCart",
@@ -51,6 +59,10 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
+    // Actuator listens on its own port (bound to loopback by default); -1 when it shares the application port.
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Autowired
     private final JwtTokenFilter jwtAuthenticationFilter;
     @Autowired
@@ -86,6 +98,9 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(PERMISSION_LIST).permitAll()
+                        // Prometheus scrapes without a token, but only on the management port
+                        .requestMatchers(prometheusOnManagementPort()).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -96,6 +111,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private RequestMatcher prometheusOnManagementPort() {
+        return new AndRequestMatcher(
+                request -> managementPort > 0 && request.getLocalPort() == managementPort,
+                antMatcher("/actuator/prometheus"));
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
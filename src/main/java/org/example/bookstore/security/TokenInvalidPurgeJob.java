@@ -0,0 +1,67 @@
+package org.example.bookstore.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.repository.InvalidTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+// Deletes token_invalid rows whose token has expired: such a JWT fails signature/expiry checks
+// on its own, so the revocation record is dead weight. Rows go in small batches, each in its
+// own transaction, to keep lock time and undo log short on a large backlog.
+@Component
+@Slf4j
+public class TokenInvalidPurgeJob {
+
+    private final InvalidTokenRepository invalidTokenRepository;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final Counter purgedRows;
+
+    private final DistributionSummary purgedPerRun;
+
+    @Value("${app.security.revocation.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.security.revocation.purge.max-batches:100}")
+    private int maxBatches;
+
+    public TokenInvalidPurgeJob(InvalidTokenRepository invalidTokenRepository,
+                                TokenRevocationService tokenRevocationService,
+                                MeterRegistry meterRegistry) {
+        this.invalidTokenRepository = invalidTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.purgedRows = Counter.builder("token_invalid.purged")
+                .description("Expired revocation rows deleted")
+                .register(meterRegistry);
+        this.purgedPerRun = DistributionSummary.builder("token_invalid.purged.per_run")
+                .description("Expired revocation rows deleted per purge run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge.interval:PT15M}",
+            initialDelayString = "${app.security.revocation.purge.initial-delay:PT1M}")
+    public void purgeExpired() {
+        Date now = new Date();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = invalidTokenRepository.deleteExpiredBatch(now, batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        int pruned = tokenRevocationService.pruneExpired();
+        purgedRows.increment(total);
+        purgedPerRun.record(total);
+        if (total > 0 || pruned > 0) {
+            log.info("Purged {} expired token_invalid rows, {} in-memory revocations", total, pruned);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.bookstore.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.model.TokenInvalid;
+import org.example.bookstore.repository.InvalidTokenRepository;
+import org.example.bookstore.utils.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory index of revoked token ids, so the per-request revocation check never hits the database.
+// token_invalid stays the source of truth: rows are written here and the index is reloaded from it
+// at startup. The Bloom filter answers the common "never revoked" case without touching the map.
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final InvalidTokenRepository invalidTokenRepository;
+
+    private final int expectedInsertions;
+
+    private final double falsePositiveRate;
+
+    // token id -> expiry (epoch millis); entries past their expiry can be dropped, the JWT is dead anyway
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    private volatile int capacity;
+
+    public TokenRevocationService(InvalidTokenRepository invalidTokenRepository,
+                                  @Value("${app.security.revocation.expected-insertions:100000}") int expectedInsertions,
+                                  @Value("${app.security.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.invalidTokenRepository = invalidTokenRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.capacity = expectedInsertions;
+        this.bloomFilter = new BloomFilter(capacity, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        revoked.clear();
+        invalidTokenRepository.findActiveIds(new Date())
+                .forEach(row -> revoked.put(row.getId(), row.getExpires().getTime()));
+        rebuildFilter();
+        log.info("Loaded {} revoked token ids", revoked.size());
+    }
+
+    public boolean isRevoked(UUID tokenId) {
+        return bloomFilter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    public void revoke(UUID tokenId, String token, Date expires) {
+        invalidTokenRepository.save(TokenInvalid.builder()
+                .id(tokenId)
+                .token(token)
+                .expires(expires)
+                .build());
+        revoked.put(tokenId, expires.getTime());
+        bloomFilter.put(tokenId);
+        if (revoked.size() > capacity) {
+            rebuildFilter();
+        }
+    }
+
+    // Drops ids whose token has expired and rebuilds the filter, since Bloom filters cannot delete.
+    public int pruneExpired() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expires -> expires < now);
+        rebuildFilter();
+        return before - revoked.size();
+    }
+
+    private synchronized void rebuildFilter() {
+        int newCapacity = Math.max(expectedInsertions, revoked.size() * 2);
+        BloomFilter filter = new BloomFilter(newCapacity, falsePositiveRate);
+        revoked.keySet().forEach(filter::put);
+        bloomFilter = filter;
+        capacity = newCapacity;
+        // revoke() may have written into the old filter while this one was filled; the map has them
+        revoked.keySet().forEach(filter::put);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.bookstore.security;
+
+import lombok.AllArgsConstructor;
+import org.example.bookstore.config.CacheConfig;
+import org.example.bookstore.repository.UserRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+// Account check used by the stateless JWT mode. The answer is cached for a few seconds,
+// so a deleted account is locked out within that TTL (immediately, since deleteUser evicts).
+@Component
+@AllArgsConstructor
+public class UserStatusChecker {
+
+    private UserRepository userRepository;
+
+    @Cacheable(cacheNames = CacheConfig.USER_STATUS, key = "#username")
+    public boolean isActive(String username) {
+        return userRepository.existsByUsername(username);
+    }
+}
@@ -1,12 +1,12 @@
 package org.example.bookstore.service;
 
 import com.nimbusds.jose.JOSEException;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import org.example.bookstore.enums.ErrorCode;
 import org.example.bookstore.exception.AppException;
 import org.example.bookstore.model.Cart;
 import org.example.bookstore.model.Role;
-import org.example.bookstore.model.TokenInvalid;
 import org.example.bookstore.model.User;
 import org.example.bookstore.payload.request.IntrospectRequest;
 import org.example.bookstore.payload.request.RefreshTokenRequest;
@@ -14,10 +14,10 @@ import org.example.bookstore.payload.request.RegisterRequest;
 import org.example.bookstore.payload.response.IntrospectTokenResponse;
 import org.example.bookstore.payload.response.LogInResponse;
 import org.example.bookstore.payload.response.RefreshTokenResponse;
-import org.example.bookstore.repository.InvalidTokenRepository;
 import org.example.bookstore.repository.RoleRepository;
 import org.example.bookstore.repository.UserRepository;
 import org.example.bookstore.security.JwtTokenProvider;
+import org.example.bookstore.security.TokenRevocationService;
 import org.example.bookstore.service.Interface.AuthenticationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -41,7 +41,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private JwtTokenProvider jwtTokenProvider;
 
     @Autowired
-    private InvalidTokenRepository invalidTokenRepository;
+    private TokenRevocationService tokenRevocationService;
     @Autowired
     private RoleRepository roleRepository;
 
@@ -93,13 +93,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Override
     public IntrospectTokenResponse introspectToken(IntrospectRequest request) throws ParseException, JOSEException {
         var token = request.getToken();
-        boolean isTokenExprired =  invalidTokenRepository.existsByToken(token);
-        if(isTokenExprired){
-            return IntrospectTokenResponse.builder()
-                    .valid(false)
-                    .build();
-        }
-        boolean isTokenValid = jwtTokenProvider.validateToken(token);
+        Claims claims = jwtTokenProvider.parseIfValid(token);
+        boolean isTokenValid = claims != null
+                && !tokenRevocationService.isRevoked(jwtTokenProvider.getTokenId(claims));
         return IntrospectTokenResponse.builder()
                 .valid(isTokenValid)
                 .build();
@@ -112,31 +108,22 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             throw new IllegalArgumentException("Token không hợp lệ hoặc không tồn tại!");
         }
 
-        TokenInvalid invalidatedToken = TokenInvalid.builder()
-                .id(jwtTokenProvider.getTokenId(token))
-                .token(token)
-                .expires(jwtTokenProvider.getExpirationDate(token))
-                .build();
-        invalidTokenRepository.save(invalidatedToken);
+        Claims claims = jwtTokenProvider.resolveClaims(request, token);
+        tokenRevocationService.revoke(jwtTokenProvider.getTokenId(claims), token, claims.getExpiration());
     }
 
 
     @Override
     public RefreshTokenResponse refreshToken(RefreshTokenRequest request) throws ParseException, JOSEException {
         String token = request.getToken();
+        Claims claims = jwtTokenProvider.parse(token);
+        UUID tokenId = jwtTokenProvider.getTokenId(claims);
 
-        if (invalidTokenRepository.existsById(jwtTokenProvider.getTokenId(token))) {
+        if (tokenRevocationService.isRevoked(tokenId)) {
             throw new AppException(ErrorCode.TOKEN_INVALID);
         }
-        TokenInvalid tokenInValid =
-                TokenInvalid.builder()
-                        .id(jwtTokenProvider.getTokenId(token))
-                        .expires(jwtTokenProvider.getExpirationDate(token))
-                        .token(token)
-                        .build();
-
-        invalidTokenRepository.save(tokenInValid);
-        String newToken = jwtTokenProvider.refreshToken(token);
+        tokenRevocationService.revoke(tokenId, token, claims.getExpiration());
+        String newToken = jwtTokenProvider.refreshToken(claims);
 
         return RefreshTokenResponse.builder().token(newToken).valid(true).build();
     }
@@ -1,18 +1,28 @@
 package org.example.bookstore.service;
 
+import org.example.bookstore.config.BookCacheEvictor;
+import org.example.bookstore.config.CacheConfig;
 import org.example.bookstore.enums.ErrorCode;
+import org.example.bookstore.event.BookCatalogChangedEvent;
 import org.example.bookstore.exception.AppException;
+import org.example.bookstore.mapper.AuthorMapper;
 import org.example.bookstore.model.Author;
 import org.example.bookstore.payload.AuthorDTO;
 import org.example.bookstore.repository.AuthorRepository;
+import org.example.bookstore.repository.BookRepository;
 import org.example.bookstore.service.Interface.AuthorService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 @Service
@@ -21,14 +31,28 @@ public class AuthorServiceImpl implements AuthorService {
     @Autowired
     private AuthorRepository authorRepository;
 
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookCacheEvictor bookCacheEvictor;
+
     private final ModelMapper modelMapper;
 
+    private final AuthorMapper authorMapper;
+
     @Autowired
-    public AuthorServiceImpl(ModelMapper modelMapper) {
+    public AuthorServiceImpl(ModelMapper modelMapper, AuthorMapper authorMapper) {
         this.modelMapper = modelMapper;
+        this.authorMapper = authorMapper;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.AUTHORS, CacheConfig.AUTHOR_BY_NAME}, allEntries = true)
     public AuthorDTO createAuthor(AuthorDTO authorDTO) {
         boolean existedAuthor = authorRepository.existsByName(authorDTO.getAuthorName());
         if(existedAuthor){
@@ -36,50 +60,68 @@ public class AuthorServiceImpl implements AuthorService {
         }
         Author author = modelMapper.map(authorDTO, Author.class);
         Author savedAuthor = authorRepository.save(author);
-        return modelMapper.map(savedAuthor, AuthorDTO.class);
+        return authorMapper.toDTO(savedAuthor);
 
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.AUTHORS, CacheConfig.AUTHOR_BY_NAME}, allEntries = true)
     public AuthorDTO updateAuthor(UUID id, AuthorDTO authorDTO) {
         Author author = authorRepository.findById(id).orElseThrow(
                 () -> new AppException(ErrorCode.AUTHOR_NOT_FOUND)
         );
+        boolean renamed = !Objects.equals(author.getName(), authorDTO.getAuthorName());
         author.setName(authorDTO.getAuthorName());
         author.setBio(authorDTO.getBio());
         author.setEmail(authorDTO.getEmail());
         author.setPhone(authorDTO.getPhone());
         author.setAddress(authorDTO.getAddress());
         Author savedAuthor = authorRepository.save(author);
-        return modelMapper.map(savedAuthor, AuthorDTO.class);
+        if (renamed) {
+            bookRepository.renameAuthor(savedAuthor.getId(), savedAuthor.getName());
+        }
+        // the author name is indexed on every one of their books
+        bookCacheEvictor.evictAllAfterCommit();
+        eventPublisher.publishEvent(BookCatalogChangedEvent.all());
+        return authorMapper.toDTO(savedAuthor);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.AUTHORS, CacheConfig.AUTHOR_BY_NAME}, allEntries = true)
     public boolean deleteAuthor(UUID id) {
         Author author = authorRepository.findById(id)
                 .orElseThrow(()-> new AppException(ErrorCode.AUTHOR_NOT_FOUND));
         authorRepository.delete(author);
+        bookCacheEvictor.evictAllAfterCommit();
+        eventPublisher.publishEvent(BookCatalogChangedEvent.all());
         return true;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AuthorDTO getAuthorById(UUID id) {
         Author author = authorRepository.findById(id)
                 .orElseThrow(()-> new AppException(ErrorCode.AUTHOR_NOT_FOUND));
-        return modelMapper.map(author, AuthorDTO.class);
+        return authorMapper.toDTO(author);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.AUTHORS)
     public List<AuthorDTO> getAllAuthors() {
         List<Author> authors = authorRepository.findAll();
         return authors.stream()
-                .map(author -> modelMapper.map(author, AuthorDTO.class)).collect(Collectors.toList());
+                .map(authorMapper::toDTO).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.AUTHOR_BY_NAME, key = "#authorName")
     public AuthorDTO getAuthorByName(String authorName) {
         Author author = authorRepository.findByName(authorName)
                 .orElseThrow(()-> new AppException(ErrorCode.AUTHOR_NOT_FOUND));
-        return modelMapper.map(author, AuthorDTO.class);
+        return authorMapper.toDTO(author);
     }
 }
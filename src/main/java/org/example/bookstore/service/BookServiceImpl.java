@@ -1,23 +1,39 @@
 package org.example.bookstore.service;
 
+import org.example.bookstore.config.BookCacheEvictor;
+import org.example.bookstore.config.CacheConfig;
+import org.example.bookstore.enums.BookSortField;
 import org.example.bookstore.enums.ErrorCode;
+import org.example.bookstore.event.BookCatalogChangedEvent;
 import org.example.bookstore.exception.AppException;
 import org.example.bookstore.exception.ResourceNotFoundException;
+import org.example.bookstore.mapper.BookMapper;
 import org.example.bookstore.model.Author;
 import org.example.bookstore.model.Book;
 import org.example.bookstore.model.Category;
 import org.example.bookstore.payload.BookDTO;
+import org.example.bookstore.payload.SuggestionDTO;
+import org.example.bookstore.payload.request.BookFilterRequest;
 import org.example.bookstore.payload.request.CreateBookRequest;
+import org.example.bookstore.payload.response.BookFilterResponse;
 import org.example.bookstore.payload.response.BookResponse;
 import org.example.bookstore.payload.response.CloudinaryResponse;
 import org.example.bookstore.repository.AuthorRepository;
 import org.example.bookstore.repository.BookRepository;
 import org.example.bookstore.repository.CategoryRepository;
+import org.example.bookstore.search.BookFacetIndex;
+import org.example.bookstore.search.BookSearchIndex;
+import org.example.bookstore.search.SuggestionIndex;
 import org.example.bookstore.service.Interface.AwsS3Service;
 import org.example.bookstore.service.Interface.BookService;
+import org.example.bookstore.utils.CursorUtil;
 import org.example.bookstore.utils.FileUploadUtil;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -28,8 +44,12 @@ import org.springframework.web.multipart.MultipartFile;
 
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookServiceImpl implements BookService {
@@ -42,101 +62,233 @@ public class BookServiceImpl implements BookService {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private BookMapper bookMapper;
+
     @Autowired
     private BookRepository bookRepository;
     @Autowired
     private AuthorRepository authorRepository;
     @Autowired
     private AwsS3Service awsS3Service;
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private BookCacheEvictor bookCacheEvictor;
+
+    @Value("${app.search.max-window:1000}")
+    private int searchMaxWindow;
+
+    @Value("${app.suggest.max-results:20}")
+    private int suggestMaxResults;
+
+    @Value("${app.paging.max-page-size:100}")
+    private int maxPageSize;
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id")
     public BookDTO getBookById(UUID id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
-        BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
-        return bookDTO;
+        return bookMapper.toDTO(book);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookResponse getAllBooks(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+        Sort sortByAndOrder = BookSortField.fromProperty(sortBy).toSort(sortOrder.equalsIgnoreCase("asc"));
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Book> pageBooks = bookRepository.findAll(pageDetails);
-        List<Book> books = pageBooks.getContent();
-        List<BookDTO> bookDTOList = books.stream()
-                .map(book -> {
-                    BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
-                    bookDTO.setAuthorName(book.getAuthor().getName());
-                    bookDTO.setCategoryName(book.getCategory().getName());
-                    return bookDTO;
-                }
-                ).toList();
-        BookResponse bookResponse = new BookResponse();
-        bookResponse.setContent(bookDTOList);
-        bookResponse.setPageNumber(pageBooks.getNumber());
-        bookResponse.setPageSize(pageBooks.getSize());
-        bookResponse.setTotalElements(pageBooks.getTotalElements());
-        bookResponse.setTotalPages(pageBooks.getTotalPages());
-        bookResponse.setLastPage(pageBooks.isLast());
-        return bookResponse;
+        Page<BookDTO> pageBooks = bookRepository.findAllBookDTOs(pageDetails);
+        return toBookResponse(pageBooks);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookResponse getAllBooksByAuthor(String authorName,Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
 
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+        Sort sortByAndOrder = BookSortField.fromProperty(sortBy).toSort(sortOrder.equalsIgnoreCase("asc"));
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Book> pageBooks = bookRepository.findByAuthor_Name(authorName, pageDetails);
-        List<BookDTO> bookDTOS =  pageBooks.getContent().stream()
-                .map(book -> {
-                            BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
-                            bookDTO.setAuthorName(book.getAuthor().getName());
-                            bookDTO.setCategoryName(book.getCategory().getName());
-                            return bookDTO;
-                        }
-                ).toList();
-        BookResponse bookResponse = new BookResponse();
-        bookResponse.setContent(bookDTOS);
-        bookResponse.setPageNumber(pageBooks.getNumber());
-        bookResponse.setPageSize(pageBooks.getSize());
-        bookResponse.setTotalElements(pageBooks.getTotalElements());
-        bookResponse.setTotalPages(pageBooks.getTotalPages());
-        bookResponse.setLastPage(pageBooks.isLast());
-        return bookResponse;
+        Page<BookDTO> pageBooks = bookRepository.findBookDTOsByAuthorName(authorName, pageDetails);
+        return toBookResponse(pageBooks);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookResponse getAllBooksByCategory(String category,Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+        Sort sortByAndOrder = BookSortField.fromProperty(sortBy).toSort(sortOrder.equalsIgnoreCase("asc"));
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Book> pageBooks = bookRepository.findByCategory_Name(category, pageDetails);
-        List<BookDTO> bookDTOS =  pageBooks.getContent().stream()
-                .map(book -> {
-                            BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
-                            bookDTO.setAuthorName(book.getAuthor().getName());
-                            bookDTO.setCategoryName(book.getCategory().getName());
-                            return bookDTO;
-                        }
-                ).toList();
+        Page<BookDTO> pageBooks = bookRepository.findBookDTOsByCategoryName(category, pageDetails);
+        return toBookResponse(pageBooks);
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookResponse getAllBooksAfter(String after, Integer pageSize, String sortBy, String sortOrder) {
+        return seekBooks(null, null, after, pageSize, sortBy, sortOrder);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookResponse getAllBooksByAuthorAfter(String authorName, String after, Integer pageSize, String sortBy, String sortOrder) {
+        return seekBooks(authorName, null, after, pageSize, sortBy, sortOrder);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookResponse getAllBooksByCategoryAfter(String category, String after, Integer pageSize, String sortBy, String sortOrder) {
+        return seekBooks(null, category, after, pageSize, sortBy, sortOrder);
+    }
+
+    // Keyset pagination: the cursor carries the sort key and id of the last row served, so
+    // MySQL seeks straight to the next page instead of scanning offset rows, and no COUNT(*) runs.
+    private BookResponse seekBooks(String authorName, String category, String after, Integer pageSize,
+                                   String sortBy, String sortOrder) {
+        if (pageSize == null || pageSize < 1 || pageSize > maxPageSize) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        BookSortField sortField = BookSortField.fromProperty(sortBy);
+        boolean ascending = sortOrder.equalsIgnoreCase("asc");
+        Object lastValue = null;
+        UUID lastId = null;
+        if (after != null && !after.isBlank()) {
+            String[] cursor = CursorUtil.decode(after, 4);
+            if (!cursor[0].equals(sortField.getProperty()) || ascending != cursor[1].equals("asc")) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            try {
+                lastId = UUID.fromString(cursor[2]);
+                lastValue = sortField.getParser().apply(cursor[3]);
+            } catch (IllegalArgumentException ex) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+        }
+
+        List<BookDTO> books = bookRepository.findBookDTOsAfter(authorName, category, sortField, ascending,
+                lastValue, lastId, pageSize + 1);
+        boolean lastPage = books.size() <= pageSize;
+        List<BookDTO> content = lastPage ? books : books.subList(0, pageSize);
+
+        BookResponse bookResponse = new BookResponse();
+        bookResponse.setContent(content);
+        bookResponse.setPageSize(pageSize);
+        bookResponse.setLastPage(lastPage);
+        if (!lastPage) {
+            BookDTO last = content.get(content.size() - 1);
+            Object lastSortValue = sortField.getExtractor().apply(last);
+            if (lastSortValue == null) {
+                // sort keys are NOT NULL; a null comes from a schema without db/migration-book-sort-keys-not-null.sql
+                throw new AppException(ErrorCode.INTERNAL_SERVER_ERROR);
+            }
+            bookResponse.setNextCursor(CursorUtil.encode(sortField.getProperty(), ascending ? "asc" : "desc",
+                    last.getId().toString(), lastSortValue.toString()));
+        }
+        return bookResponse;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookResponse searchBooks(String query, Integer pageNumber, Integer pageSize) {
+        if (query == null || query.isBlank() || pageNumber < 0 || pageSize < 1) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        // ranking deep pages means collecting every hit before them; past the window, refine the query
+        long offset = (long) pageNumber * pageSize;
+        if (offset + pageSize > searchMaxWindow) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        BookSearchIndex.Hits hits = bookSearchIndex.search(query, (int) offset, pageSize);
+        List<BookDTO> content = findBookDTOsInOrder(hits.getIds());
+
+        int totalPages = (int) ((hits.getTotalHits() + pageSize - 1) / pageSize);
+        BookResponse bookResponse = new BookResponse();
+        bookResponse.setContent(content);
+        bookResponse.setPageNumber(pageNumber);
+        bookResponse.setPageSize(pageSize);
+        bookResponse.setTotalElements(hits.getTotalHits());
+        bookResponse.setTotalPages(totalPages);
+        bookResponse.setLastPage(pageNumber >= totalPages - 1);
+        return bookResponse;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookFilterResponse filterBooks(BookFilterRequest request) {
+        Integer pageNumber = request.getPageNumber();
+        Integer pageSize = request.getPageSize();
+        if (pageNumber == null || pageNumber < 0 || pageSize == null || pageSize < 1 || pageSize > maxPageSize
+                || (request.getMinPrice() != null && request.getMaxPrice() != null
+                        && request.getMinPrice().compareTo(request.getMaxPrice()) > 0)) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        // computed as a long so a huge pageNumber is rejected instead of wrapping to a negative offset
+        long offset = (long) pageNumber * pageSize;
+        if (offset > Integer.MAX_VALUE) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        BookFacetIndex.Result result = bookFacetIndex.filter(request, (int) offset, pageSize);
+
+        int totalPages = (int) ((result.getTotalMatches() + pageSize - 1) / pageSize);
+        BookFilterResponse response = new BookFilterResponse();
+        response.setContent(findBookDTOsInOrder(result.getIds()));
+        response.setPageNumber(pageNumber);
+        response.setPageSize(pageSize);
+        response.setTotalElements(result.getTotalMatches());
+        response.setTotalPages(totalPages);
+        response.setLastPage(pageNumber >= totalPages - 1);
+        response.setFacets(result.getFacets());
+        return response;
+    }
+
+    // The in-memory indexes only hand out ids; rows come from the database by primary key,
+    // put back in the index's order.
+    private List<BookDTO> findBookDTOsInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, BookDTO> byId = bookRepository.findBookDTOsByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Served from memory on every keystroke: a blank prefix is not an error, it just has no suggestions.
+    @Override
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        if (limit < 1) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        return suggestionIndex.suggest(prefix, Math.min(limit, suggestMaxResults));
+    }
+
+    private BookResponse toBookResponse(Page<BookDTO> pageBooks) {
         BookResponse bookResponse = new BookResponse();
-        bookResponse.setContent(bookDTOS);
+        bookResponse.setContent(pageBooks.getContent());
         bookResponse.setPageNumber(pageBooks.getNumber());
         bookResponse.setPageSize(pageBooks.getSize());
         bookResponse.setTotalElements(pageBooks.getTotalElements());
         bookResponse.setTotalPages(pageBooks.getTotalPages());
         bookResponse.setLastPage(pageBooks.isLast());
         return bookResponse;
-
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.AUTHORS, CacheConfig.AUTHOR_BY_NAME, CacheConfig.CATEGORIES}, allEntries = true)
     public BookDTO addBook(CreateBookRequest request) {
-        Book foundBook = bookRepository.findByName(request.getTitle());
-        if(foundBook != null) {
+        if (request.getTitle() == null) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        if(bookRepository.existsByTitle(request.getTitle())) {
             throw new AppException(ErrorCode.BOOK_EXISTED);
         }
         Book book = modelMapper.map(request, Book.class);
@@ -159,10 +311,8 @@ public class BookServiceImpl implements BookService {
             book.setAuthor(author);
         }
         Book bookSaved = bookRepository.save(book);
-        BookDTO bookDTO = modelMapper.map(bookSaved, BookDTO.class);
-        bookDTO.setAuthorName(bookSaved.getAuthor().getName());
-        bookDTO.setCategoryName(bookSaved.getCategory().getName());
-        return bookDTO;
+        eventPublisher.publishEvent(BookCatalogChangedEvent.saved(bookSaved.getId()));
+        return bookMapper.toDTO(bookSaved);
 
 
     }
@@ -180,6 +330,7 @@ public class BookServiceImpl implements BookService {
                 final CloudinaryResponse response = cloudinaryServiceImpl.uploadFile(file, fileName);
                 book.setImagePath(response.getUrl());
                 bookRepository.save(book);
+                bookCacheEvictor.evictAfterCommit(id);
                 return response;
             } catch (Exception ex){
                 throw new RuntimeException(ex.getMessage());
@@ -198,6 +349,7 @@ public class BookServiceImpl implements BookService {
             Book book = optionalBook.get();
             book.setImagePath(url);
             bookRepository.save(book);
+            bookCacheEvictor.evictAfterCommit(id);
             return url;
         } catch (Exception ex){
             throw new RuntimeException(ex.getMessage());
@@ -205,7 +357,12 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public BookDTO updateBook(UUID id, BookDTO bookDTO) {
+        if (bookDTO.getTitle() == null) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
         Book bookFound = bookRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
         modelMapper.map(bookDTO, bookFound);
@@ -220,10 +377,9 @@ public class BookServiceImpl implements BookService {
                 });
         bookFound.setCategory(category);
         Book savedBook = bookRepository.save(bookFound);
-        BookDTO updatedBookDTO = modelMapper.map(savedBook, BookDTO.class);
-        updatedBookDTO.setAuthorName(savedBook.getAuthor().getName());
-        updatedBookDTO.setCategoryName(savedBook.getCategory().getName());
-        return updatedBookDTO;
+        bookCacheEvictor.evictAfterCommit(id);
+        eventPublisher.publishEvent(BookCatalogChangedEvent.saved(savedBook.getId()));
+        return bookMapper.toDTO(savedBook);
     }
 
 //        List<CartDTO> cartDTOs = carts.stream().map(cart -> {
@@ -243,10 +399,13 @@ public class BookServiceImpl implements BookService {
 
 
     @Override
+    @Transactional
     public boolean deleteBook(UUID id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book","bookId",id));
         bookRepository.delete(book);
+        bookCacheEvictor.evictAfterCommit(id);
+        eventPublisher.publishEvent(BookCatalogChangedEvent.deleted(id));
         return true;
     }
 
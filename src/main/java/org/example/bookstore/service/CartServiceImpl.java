@@ -2,8 +2,11 @@ package org.example.bookstore.service;
 
 
 import jakarta.transaction.Transactional;
+import org.example.bookstore.config.BookCacheEvictor;
 import org.example.bookstore.enums.ErrorCode;
 import org.example.bookstore.exception.AppException;
+import org.example.bookstore.mapper.CartMapper;
+import org.example.bookstore.metrics.BusinessMetrics;
 import org.example.bookstore.model.Book;
 import org.example.bookstore.model.Cart;
 import org.example.bookstore.model.CartItem;
@@ -14,7 +17,6 @@ import org.example.bookstore.repository.BookRepository;
 import org.example.bookstore.repository.CartItemRepository;
 import org.example.bookstore.repository.CartRepository;
 import org.example.bookstore.service.Interface.CartService;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,7 +35,13 @@ public class CartServiceImpl implements CartService {
     private final CartItemRepository cartItemRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CartMapper cartMapper;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Autowired
+    private BookCacheEvictor bookCacheEvictor;
 
     private static final Logger logger = LoggerFactory.getLogger(CartServiceImpl.class);
 
@@ -44,17 +52,24 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @Transactional
     public CartDTO addProductToCart(UUID cartId, UUID bookId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
 
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new AppException(ErrorCode.CART_NOT_FOUND));
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
 
-        // Kiểm tra số lượng tồn kho
-        if (book.getStock() < quantity) {
+        // Giữ hàng trong kho: kiểm tra và trừ tồn kho trong cùng một câu UPDATE
+        if (bookRepository.reserveStock(bookId, quantity) == 0) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new AppException(ErrorCode.BOOK_NOT_FOUND);
+            }
+            businessMetrics.stockRejection();
             throw new AppException(ErrorCode.BOOK_STOCK_PROBLEM);
         }
+        bookCacheEvictor.evictAfterCommit(bookId);
 
         // Tìm CartItem trong giỏ hàng
         CartItem cartItem = cartItemRepository.findCartItemByCartIdAndBookId(cartId, bookId);
@@ -66,6 +81,8 @@ public class CartServiceImpl implements CartService {
             cartItemRepository.save(cartItem);
         } else {
             // Nếu sản phẩm chưa có, tạo mới CartItem
+            Book book = bookRepository.findById(bookId)
+                    .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
             CartItem newCartItem = new CartItem();
             newCartItem.setCart(cart);
             newCartItem.setBook(book);
@@ -74,33 +91,21 @@ public class CartServiceImpl implements CartService {
             cartItemRepository.save(newCartItem);
         }
 
-        book.setStock(book.getStock() - quantity);
-        bookRepository.save(book);
-
         updateCartTotalPrice(cart);
         cartRepository.save(cart);
 
-        CartDTO cartDTO = new CartDTO();
-        cartDTO.setCartId(cartId);
-        cartDTO.setTotalPrice(cart.getTotalPrice());
-        List<CartItemDTO> cartItemDTOS = new ArrayList<>();
-        cart.getCartItems().forEach(cartItem1 -> {
-            CartItemDTO cartItemDTO = new CartItemDTO();
-            cartItemDTO.setCartItemId(cartItem1.getId());
-            cartItemDTO.setQuantity(cartItem1.getQuantity());
-            cartItemDTO.setBook(modelMapper.map(cartItem1.getBook(), BookDTO.class));
-            cartItemDTO.setBookPrice(cartItem1.getBookPrice());
-            cartItemDTOS.add(cartItemDTO);
-        });
-        cartDTO.setCartItem(cartItemDTOS);
-        return cartDTO;
+        businessMetrics.cartAddition();
+        return cartMapper.toDTO(cart);
     }
 
     private void updateCartTotalPrice(Cart cart) {
-        BigDecimal totalPrice = cart.getCartItems().stream()
+        cart.setTotalPrice(calculateTotalPrice(cart.getCartItems()));
+    }
+
+    static BigDecimal calculateTotalPrice(List<CartItem> cartItems) {
+        return cartItems.stream()
                 .map(cartItem -> cartItem.getBookPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
-        cart.setTotalPrice(totalPrice);
     }
 
 
@@ -110,13 +115,9 @@ public class CartServiceImpl implements CartService {
         if (carts.size() == 0) {
             throw new AppException(ErrorCode.CART_NOT_FOUND);
         }
-        List<CartDTO> cartDTOs = carts.stream().map(cart -> {
-            CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-            List<CartItemDTO> cartItemDTOS = cart.getCartItems().stream()
-                    .map(p -> modelMapper.map(p.getBook(), CartItemDTO.class)).collect(Collectors.toList());
-            cartDTO.setCartItem(cartItemDTOS);
-            return cartDTO;
-        }).collect(Collectors.toList());
+        List<CartDTO> cartDTOs = carts.stream()
+                .map(cartMapper::toDTO)
+                .collect(Collectors.toList());
         return cartDTOs;
     }
 
@@ -134,10 +135,7 @@ public class CartServiceImpl implements CartService {
         }
         List<CartItemDTO> cartItemDTOS = new ArrayList<>();
         cart.getCartItems().forEach(cartItem -> {
-            CartItemDTO cartItemDTO = new CartItemDTO();
-            cartItemDTO.setCartItemId(cartItem.getId());
-            cartItemDTO.setQuantity(cartItem.getQuantity());
-            cartItemDTO.setBook(modelMapper.map(cartItem.getBook(), BookDTO.class));
+            CartItemDTO cartItemDTO = cartMapper.toCartItemDTO(cartItem);
             cartItemDTO.setBookPrice(cartItem.getBook().getPrice());
             cartItemDTOS.add(cartItemDTO);
         });
@@ -159,8 +157,8 @@ public class CartServiceImpl implements CartService {
 
         cart.setTotalPrice(cart.getTotalPrice().subtract(cartItem.getBookPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity()))));
         cartRepository.save(cart);
-        Book book = cartItem.getBook();
-        book.setStock(book.getStock() + cartItem.getQuantity());
+        bookRepository.releaseStock(bookId, cartItem.getQuantity());
+        bookCacheEvictor.evictAfterCommit(bookId);
         cartItemRepository.deleteCartItemByCartIdAndBookId(cartId, bookId);
         return true;
 
@@ -1,16 +1,25 @@
 package org.example.bookstore.service;
 
+import org.example.bookstore.config.BookCacheEvictor;
+import org.example.bookstore.config.CacheConfig;
 import org.example.bookstore.enums.ErrorCode;
+import org.example.bookstore.event.BookCatalogChangedEvent;
 import org.example.bookstore.exception.AppException;
+import org.example.bookstore.mapper.CategoryMapper;
 import org.example.bookstore.model.Category;
 import org.example.bookstore.payload.CategoryDTO;
+import org.example.bookstore.repository.BookRepository;
 import org.example.bookstore.repository.CategoryRepository;
 import org.example.bookstore.service.Interface.CategoryService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,10 +30,21 @@ public class CategoryServiceImpl implements CategoryService {
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookCacheEvictor bookCacheEvictor;
 
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public boolean addCategory(String name) {
         if (categoryRepository.existsByName(name)) {
             throw new AppException(ErrorCode.CATEGORY_ALREADY_EXISTS);
@@ -37,28 +57,40 @@ public class CategoryServiceImpl implements CategoryService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public CategoryDTO getCategoryById(UUID id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
-        return modelMapper.map(category, CategoryDTO.class);
+        return categoryMapper.toDTO(category);
     }
 
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.CATEGORIES)
     public List<CategoryDTO> getAllCategories() {
         List<Category> categories = categoryRepository.findAll();
         return categories.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
+                .map(categoryMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public boolean updateCategory(UUID id, CategoryDTO categoryDTO) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
+        boolean renamed = !Objects.equals(category.getName(), categoryDTO.getCategoryName());
         category.setName(categoryDTO.getCategoryName());
 
         categoryRepository.save(category);
+        if (renamed) {
+            bookRepository.renameCategory(category.getId(), category.getName());
+        }
+        // the category name is a facet value of every book in it
+        bookCacheEvictor.evictAllAfterCommit();
+        eventPublisher.publishEvent(BookCatalogChangedEvent.all());
         return true;
     }
 
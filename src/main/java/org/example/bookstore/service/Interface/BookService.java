@@ -2,7 +2,10 @@ package org.example.bookstore.service.Interface;
 
 import org.example.bookstore.model.Book;
 import org.example.bookstore.payload.BookDTO;
+import org.example.bookstore.payload.SuggestionDTO;
+import org.example.bookstore.payload.request.BookFilterRequest;
 import org.example.bookstore.payload.request.CreateBookRequest;
+import org.example.bookstore.payload.response.BookFilterResponse;
 import org.example.bookstore.payload.response.BookResponse;
 import org.example.bookstore.payload.response.CloudinaryResponse;
 import org.example.bookstore.payload.response.CreateBookResponse;
@@ -21,6 +24,12 @@ public interface BookService {
     BookResponse getAllBooks(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
     BookResponse getAllBooksByAuthor(String author,Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
     BookResponse getAllBooksByCategory(String category,Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    BookResponse getAllBooksAfter(String after, Integer pageSize, String sortBy, String sortOrder);
+    BookResponse getAllBooksByAuthorAfter(String author, String after, Integer pageSize, String sortBy, String sortOrder);
+    BookResponse getAllBooksByCategoryAfter(String category, String after, Integer pageSize, String sortBy, String sortOrder);
+    BookResponse searchBooks(String query, Integer pageNumber, Integer pageSize);
+    List<SuggestionDTO> suggest(String prefix, Integer limit);
+    BookFilterResponse filterBooks(BookFilterRequest request);
     BookDTO addBook(CreateBookRequest request);
     CloudinaryResponse uploadImageBook(UUID id, MultipartFile file);
     String uploadImageB(UUID id, MultipartFile file);
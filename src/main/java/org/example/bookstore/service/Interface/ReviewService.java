@@ -1,8 +1,10 @@
 package org.example.bookstore.service.Interface;
 
 import org.example.bookstore.payload.ReviewDTO;
+import org.example.bookstore.payload.ReviewSummaryDTO;
 import org.example.bookstore.payload.request.ReviewCreate;
 import org.example.bookstore.payload.request.ReviewUpdate;
+import org.example.bookstore.payload.response.ReviewResponse;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,6 +23,10 @@ public interface ReviewService {
 
     List<ReviewDTO> getReviewsByBookId(UUID bookId);
 
+    ReviewResponse getReviewsByBookIdAfter(UUID bookId, String after, Integer pageSize);
+
+    ReviewSummaryDTO getReviewSummary(UUID bookId);
+
 
 
 
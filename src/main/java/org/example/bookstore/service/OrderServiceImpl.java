@@ -1,23 +1,36 @@
 package org.example.bookstore.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.bookstore.config.BookCacheEvictor;
 import org.example.bookstore.enums.ErrorCode;
 import org.example.bookstore.enums.OrderStatus;
 import org.example.bookstore.exception.AppException;
+import org.example.bookstore.mapper.OrderMapper;
+import org.example.bookstore.metrics.BusinessMetrics;
 import org.example.bookstore.model.*;
 import org.example.bookstore.payload.OrderDTO;
 import org.example.bookstore.payload.OrderItemDTO;
 import org.example.bookstore.payload.UserOrderDTO;
 import org.example.bookstore.repository.*;
-import org.example.bookstore.service.Interface.CartService;
 import org.example.bookstore.service.Interface.OrderService;
-import org.modelmapper.ModelMapper;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StopWatch;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 
@@ -30,21 +43,33 @@ public class OrderServiceImpl implements OrderService {
     private UserRepository userRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private OrderMapper orderMapper;
 
     @Autowired
     private PaymentRepository paymentRepository;
     @Autowired
     private OrderRepository orderRepository;
-    @Autowired
-    private CartService cartService;
 
     @Autowired
     private OrderItemRepository orderItemRepository;
     @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
     private BookRepository bookRepository;
     @Autowired
     private DeliveryRepository deliveryRepository;
+    @Autowired
+    private BusinessMetrics businessMetrics;
+    @Autowired
+    private BookCacheEvictor bookCacheEvictor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.order.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
 
     private enum orderStatus {
         PENDING,
@@ -52,8 +77,14 @@ public class OrderServiceImpl implements OrderService {
         COMPLETED,
         CANCELED
     }
+    // One transaction for the whole order: the order and its items are inserted as JDBC batches,
+    // sold counters move in a single UPDATE and the cart is emptied with one bulk DELETE.
     @Override
+    @Transactional
     public OrderDTO placeOrder(UUID userId, UUID cartId, String paymentMethod, String deliveryMethod) {
+        StopWatch stopWatch = new StopWatch("placeOrder");
+        stopWatch.start("load");
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
 
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new AppException(ErrorCode.CART_NOT_FOUND));
@@ -86,9 +117,13 @@ public class OrderServiceImpl implements OrderService {
         order.setTotalAmount(cart.getTotalPrice().add(deliveryType.getPrice()));
         order.setOrderStatus(orderStatus.PENDING.ordinal());
         order.setShippingPrice(deliveryType.getPrice());
+
+        stopWatch.stop();
+        stopWatch.start("insert order items");
         Order savedOrder = orderRepository.save(order);
 
         List<OrderItem> orderItems = new ArrayList<>();
+        Map<UUID, Long> soldByBook = new HashMap<>();
 
         for (CartItem cartItem : cartItems) {
             OrderItem orderItem = new OrderItem();
@@ -97,36 +132,43 @@ public class OrderServiceImpl implements OrderService {
             orderItem.setProductPrice(cartItem.getBookPrice());
             orderItem.setOrder(savedOrder);
             orderItems.add(orderItem);
+            soldByBook.merge(cartItem.getBook().getId(), (long) cartItem.getQuantity(), Long::sum);
         }
         orderItemRepository.saveAll(orderItems);
-
-        for (int i = 0; i < cart.getCartItems().size(); i++) {
-            CartItem cartItem1 = cart.getCartItems().get(i);
-            int quantity = cartItem1.getQuantity();
-            Book book = cartItem1.getBook();
-            cartService.deleteProductFromCart(cartId, book.getId());
-            book.setStock(book.getStock() - quantity);
-            book.setSold(book.getSold() + quantity);
-            bookRepository.save(book);
+        entityManager.flush();
+
+        // Tồn kho đã được giữ khi thêm vào giỏ hàng, ở đây chỉ cộng số lượng đã bán
+        stopWatch.stop();
+        stopWatch.start("update sold");
+        bookRepository.incrementSold(soldByBook);
+        bookCacheEvictor.evictAfterCommit(soldByBook.keySet());
+
+        stopWatch.stop();
+        stopWatch.start("clear cart");
+        cartItemRepository.deleteAllByCartId(cartId);
+        cart.setTotalPrice(BigDecimal.ZERO);
+        stopWatch.stop();
+
+        businessMetrics.checkoutPhases(stopWatch);
+        if (log.isDebugEnabled()) {
+            log.debug("Placed order {} with {} items: {}", savedOrder.getId(), orderItems.size(),
+                    stopWatch.prettyPrint(TimeUnit.MILLISECONDS));
         }
-        OrderDTO orderDTO = modelMapper.map(savedOrder, OrderDTO.class);
-        orderDTO.setUser(modelMapper.map(user, UserOrderDTO.class));
-        orderItems.forEach(item -> orderDTO.getOrderItem().add(modelMapper.map(item, OrderItemDTO.class)));
-        return orderDTO;
+        businessMetrics.orderPlaced();
+        return orderMapper.toDTO(savedOrder, orderItems);
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderDTO getOrder(UUID orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new AppException(ErrorCode.ORDER_NOT_FOUND));
-        OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
-        orderDTO.setOrderItem(order.getOrderItems().stream()
-                .map(orderItem -> modelMapper.map(orderItem, OrderItemDTO.class)).collect(Collectors.toList()));
-        return orderDTO;
+        return orderMapper.toDTO(order);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByUserId(UUID userId) {
 
         List<Order> orders = orderRepository.findAllByUserId(userId);
@@ -134,48 +176,39 @@ public class OrderServiceImpl implements OrderService {
             throw new AppException(ErrorCode.ORDER_NOT_FOUND);
         }
         return orders.stream()
-                .map(order -> {
-                    OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
-                    orderDTO.setOrderItem(order.getOrderItems().stream()
-                            .map(orderItem -> modelMapper.map(orderItem, OrderItemDTO.class))
-                            .collect(Collectors.toList()));
-                    return orderDTO;
-                })
+                .map(orderMapper::toDTO)
                 .collect(Collectors.toList());
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDTO> getAllOrders() {
         List<Order> orders = orderRepository.findAll();
         if (orders.size() == 0) {
             throw new AppException(ErrorCode.ORDER_NOT_FOUND);
         }
         return orders.stream()
-                .map(order -> {
-                    OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
-                    orderDTO.setOrderItem(order.getOrderItems().stream()
-                            .map(orderItem -> modelMapper.map(orderItem, OrderItemDTO.class))
-                            .collect(Collectors.toList()));
-                    return orderDTO;
-                })
+                .map(orderMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public OrderDTO updateOrder(UUID orderId, int orderStatus) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         order.setOrderStatus(orderStatus);
-        return modelMapper.map(orderRepository.save(order), OrderDTO.class);
+        return orderMapper.toDTO(orderRepository.save(order));
     }
 
     @Override
+    @Transactional
     public String cancelOrder(UUID orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new AppException(ErrorCode.ORDER_NOT_FOUND));
 
-        if (order.getOrderStatus() != OrderStatus.WAIT_PAYMENT.getValue() ||
+        if (order.getOrderStatus() != OrderStatus.WAIT_PAYMENT.getValue() &&
                 order.getOrderStatus() != OrderStatus.PAID.getValue()) {
             throw new AppException(ErrorCode.ORDER_CANCELED_ERROR);
         }
@@ -183,16 +216,21 @@ public class OrderServiceImpl implements OrderService {
         order.setOrderStatus(OrderStatus.CANCELLED.getValue());
         orderRepository.save(order);
 
-        List<OrderItem> orderItems = orderItemRepository.findByOrder_Id(orderId);
-        for (OrderItem orderItem : orderItems) {
-            Book book = orderItem.getBook();
-            book.setStock(book.getStock() + orderItem.getQuantity());
-             bookRepository.save(book);
+        Map<UUID, Long> releasedByBook = new HashMap<>();
+        for (OrderItem orderItem : orderItemRepository.findByOrder_Id(orderId)) {
+            releasedByBook.merge(orderItem.getBook().getId(), (long) orderItem.getQuantity(), Long::sum);
         }
+        bookRepository.releaseStock(releasedByBook);
+        // undo placeOrder's sold increment, or cancelled orders would keep ranking the book as a best seller
+        Map<UUID, Long> unsoldByBook = new HashMap<>();
+        releasedByBook.forEach((bookId, quantity) -> unsoldByBook.put(bookId, -quantity));
+        bookRepository.incrementSold(unsoldByBook);
+        bookCacheEvictor.evictAfterCommit(releasedByBook.keySet());
         return "Order has been canceled successfully.";
     }
 
     @Override
+    @Transactional
     public String confirmOrder(UUID orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new AppException(ErrorCode.ORDER_NOT_FOUND));
@@ -1,18 +1,26 @@
 package org.example.bookstore.service;
 
+import org.example.bookstore.config.BookCacheEvictor;
 import org.example.bookstore.enums.ErrorCode;
 import org.example.bookstore.exception.AppException;
+import org.example.bookstore.mapper.ReviewMapper;
 import org.example.bookstore.model.Book;
 import org.example.bookstore.model.Review;
+import org.example.bookstore.model.ReviewSummary;
 import org.example.bookstore.model.User;
 import org.example.bookstore.payload.ReviewDTO;
+import org.example.bookstore.payload.ReviewSummaryDTO;
 import org.example.bookstore.payload.request.ReviewCreate;
 import org.example.bookstore.payload.request.ReviewUpdate;
+import org.example.bookstore.payload.response.ReviewResponse;
 import org.example.bookstore.repository.BookRepository;
 import org.example.bookstore.repository.ReviewRepository;
+import org.example.bookstore.repository.ReviewSummaryRepository;
 import org.example.bookstore.repository.UserRepository;
 import org.example.bookstore.service.Interface.ReviewService;
-import org.modelmapper.ModelMapper;
+import org.example.bookstore.utils.CursorUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -20,6 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,17 +38,28 @@ public class ReviewServiceImpl implements ReviewService {
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final ReviewRepository reviewRepository;
-    private final ModelMapper modelMapper;
-
-    public ReviewServiceImpl(BookRepository bookRepository, UserRepository userRepository, ReviewRepository reviewRepository, ModelMapper modelMapper) {
+    private final ReviewSummaryRepository reviewSummaryRepository;
+    private final ReviewMapper reviewMapper;
+    private final BookCacheEvictor bookCacheEvictor;
+    private final int maxPageSize;
+
+    public ReviewServiceImpl(BookRepository bookRepository, UserRepository userRepository, ReviewRepository reviewRepository,
+                             ReviewSummaryRepository reviewSummaryRepository, ReviewMapper reviewMapper,
+                             BookCacheEvictor bookCacheEvictor,
+                             @Value("${app.paging.max-page-size:100}") int maxPageSize) {
         this.bookRepository = bookRepository;
         this.userRepository = userRepository;
         this.reviewRepository = reviewRepository;
-        this.modelMapper = modelMapper;
+        this.reviewSummaryRepository = reviewSummaryRepository;
+        this.reviewMapper = reviewMapper;
+        this.bookCacheEvictor = bookCacheEvictor;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
+    @Transactional
     public ReviewDTO addReview(ReviewCreate reviewCreate) {
+        validateRatePoint(reviewCreate.getRating());
 
         Book book = bookRepository.findById(reviewCreate.getBookId())
                 .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
@@ -59,23 +79,15 @@ public class ReviewServiceImpl implements ReviewService {
         review.setContent(reviewCreate.getContent());
         review.setRatePoint(reviewCreate.getRating());
         reviewRepository.save(review);
+        applyRatingChange(book.getId(), null, review.getRatePoint());
 
-        List<Review> reviews = book.getReviews();
-        reviews.add(review);
-        book.setReviews(reviews);
-        book.setAverageRating(getAvgRatingProduct(reviews));
-        bookRepository.save(book);
-
-        ReviewDTO reviewDTO = modelMapper.map(review, ReviewDTO.class);
-        reviewDTO.setTitle(review.getBook().getTitle());
-        reviewDTO.setUsername(review.getUser().getUsername());
-
-        return reviewDTO;
+        return reviewMapper.toDTO(review);
     }
 
     @Transactional
     @Override
     public ReviewDTO updateReview(ReviewUpdate reviewUpdate) {
+        validateRatePoint(reviewUpdate.getRatePoint());
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         Review review = reviewRepository.findById(reviewUpdate.getId())
@@ -84,32 +96,19 @@ public class ReviewServiceImpl implements ReviewService {
             throw new AppException(ErrorCode.UNAUTHORIZED_ACTION);
         }
 
-        UUID bookId = review.getBook().getId();
-        Book book = bookRepository.findById(bookId)
-                        .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
+        int oldRatePoint = review.getRatePoint();
         review.setContent(reviewUpdate.getContent());
         review.setRatePoint(reviewUpdate.getRatePoint());
         reviewRepository.save(review);
-
-        List<Review> reviews = book.getReviews();
-        reviews.add(review);
-        book.setReviews(reviews);
-        book.setAverageRating(getAvgRatingProduct(reviews));
-        bookRepository.save(book);
-
-        return modelMapper.map(review, ReviewDTO.class);
-    }
-    private double getAvgRatingProduct(List<Review> reviews) {
-        if (reviews == null || reviews.isEmpty()) {
-            return 0;
+        if (review.getRatePoint() != oldRatePoint) {
+            applyRatingChange(review.getBook().getId(), oldRatePoint, review.getRatePoint());
         }
-        double totalStars = 0;
-        for (Review review : reviews) {
-            totalStars += review.getRatePoint();
-        }
-        return totalStars / reviews.size();
+
+        return reviewMapper.toDTO(review);
     }
+
     @Override
+    @Transactional
     public String deleteReview(UUID reviewId) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -120,50 +119,125 @@ public class ReviewServiceImpl implements ReviewService {
         if(!isAdmin || !review.getUser().getUsername().equals(authentication.getName())) {
             throw new AppException(ErrorCode.REVIEW_ERROR_DELETE);
         }
-        Book book = review.getBook();
-        List<Review> reviewLists = book.getReviews();
-        reviewLists.remove(review);
-        book.setReviews(reviewLists);
-        book.setAverageRating(getAvgRatingProduct(reviewLists));
-        bookRepository.save(book);
         reviewRepository.delete(review);
+        applyRatingChange(review.getBook().getId(), review.getRatePoint(), null);
         return "Delete review successfully";
     }
 
+    private static void validateRatePoint(int ratePoint) {
+        if (ratePoint < 1 || ratePoint > 5) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
+    // Moves the book's running rating totals and its star histogram from removedRating
+    // (null on create) to addedRating (null on delete), in O(1) whatever the review count.
+    // The rating aggregate is stored twice: book.rating_sum/rating_count (behind averageRating,
+    // read by every catalog listing and sort) and review_summary.total/rating_sum (next to the
+    // star histogram, read by the review summary). This method is their only writer and moves
+    // both by the same delta; db/backfill-book-rating.sql and db/backfill-review-summary.sql
+    // rebuild each from the review table.
+    private void applyRatingChange(UUID bookId, Integer removedRating, Integer addedRating) {
+        long[] stars = new long[6];
+        long total = 0;
+        long ratingSum = 0;
+        if (removedRating != null) {
+            // reviews written before validateRatePoint may be outside 1-5: like the backfill,
+            // they count towards the totals but have no star bucket
+            if (removedRating >= 1 && removedRating <= 5) {
+                stars[removedRating]--;
+            }
+            total--;
+            ratingSum -= removedRating;
+        }
+        if (addedRating != null) {
+            stars[addedRating]++;
+            total++;
+            ratingSum += addedRating;
+        }
+        bookRepository.applyRatingDelta(bookId, ratingSum, total);
+        bookCacheEvictor.evictAfterCommit(bookId);
+        reviewSummaryRepository.applyDelta(bookId, stars[1], stars[2], stars[3], stars[4], stars[5], total, ratingSum);
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewDTO> getReviewsByUserId(UUID userId) {
         List<Review> reviews = reviewRepository.findAllReviewsByUserId(userId);
-        return reviews.stream().map(review -> {
-            ReviewDTO reviewDTO = modelMapper.map(review, ReviewDTO.class);
-            reviewDTO.setTitle(review.getBook().getTitle());
-            reviewDTO.setUsername(review.getUser().getUsername());
-            return reviewDTO;
-        }).toList();
+        return reviews.stream().map(reviewMapper::toDTO).toList();
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ReviewDTO getReviewById(UUID reviewId) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new AppException(ErrorCode.REVIEW_NOT_FOUND));
-        ReviewDTO reviewDTO = modelMapper.map(review, ReviewDTO.class);
-        reviewDTO.setTitle(review.getBook().getTitle());
-        reviewDTO.setUsername(review.getUser().getUsername());
-        return reviewDTO;
+        return reviewMapper.toDTO(review);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewDTO> getReviewsByBookId(UUID bookId) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new AppException(ErrorCode.BOOK_NOT_FOUND));
+        List<ReviewDTO> reviews = reviewRepository.findReviewDTOsByBookId(bookId, Limit.unlimited());
+        if (reviews.isEmpty() && !bookRepository.existsById(bookId)) {
+            throw new AppException(ErrorCode.BOOK_NOT_FOUND);
+        }
+        return reviews;
+    }
 
-        List<Review> reviews = book.getReviews();
-        return reviews.stream().map(review ->{
-            ReviewDTO reviewDTO = modelMapper.map(review, ReviewDTO.class);
-            reviewDTO.setTitle(review.getBook().getTitle());
-            reviewDTO.setUsername(review.getUser().getUsername());
-            return reviewDTO;
-        }).toList();
+    @Override
+    @Transactional(readOnly = true)
+    public ReviewSummaryDTO getReviewSummary(UUID bookId) {
+        ReviewSummary summary = reviewSummaryRepository.findById(bookId).orElseGet(() -> {
+            if (!bookRepository.existsById(bookId)) {
+                throw new AppException(ErrorCode.BOOK_NOT_FOUND);
+            }
+            ReviewSummary empty = new ReviewSummary();
+            empty.setBookId(bookId);
+            return empty;
+        });
+        return reviewMapper.toSummaryDTO(summary);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ReviewResponse getReviewsByBookIdAfter(UUID bookId, String after, Integer pageSize) {
+        if (pageSize == null || pageSize < 1 || pageSize > maxPageSize) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        List<ReviewDTO> reviews;
+        if (after == null || after.isBlank()) {
+            reviews = reviewRepository.findReviewDTOsByBookId(bookId, Limit.of(pageSize + 1));
+            // Only an empty first page needs to tell "no reviews yet" from "no such book".
+            if (reviews.isEmpty() && !bookRepository.existsById(bookId)) {
+                throw new AppException(ErrorCode.BOOK_NOT_FOUND);
+            }
+        } else {
+            String[] cursor = CursorUtil.decode(after, 2);
+            try {
+                reviews = reviewRepository.findReviewDTOsByBookIdAfter(bookId, LocalDate.parse(cursor[0]),
+                        UUID.fromString(cursor[1]), Limit.of(pageSize + 1));
+            } catch (DateTimeParseException | IllegalArgumentException ex) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+        }
+
+        boolean lastPage = reviews.size() <= pageSize;
+        List<ReviewDTO> content = lastPage ? reviews : reviews.subList(0, pageSize);
+
+        ReviewResponse reviewResponse = new ReviewResponse();
+        reviewResponse.setContent(content);
+        reviewResponse.setPageSize(pageSize);
+        reviewResponse.setLastPage(lastPage);
+        if (!lastPage) {
+            ReviewDTO last = content.get(content.size() - 1);
+            if (last.getCreatedAt() == null) {
+                // created_at is NOT NULL; a null comes from a schema without db/migration-review-created-at-not-null.sql
+                throw new AppException(ErrorCode.INTERNAL_SERVER_ERROR);
+            }
+            reviewResponse.setNextCursor(CursorUtil.encode(last.getCreatedAt().toString(), last.getId().toString()));
+        }
+        return reviewResponse;
     }
 }
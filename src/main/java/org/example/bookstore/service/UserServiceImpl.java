@@ -1,7 +1,11 @@
 package org.example.bookstore.service;
 
+import org.example.bookstore.config.CacheConfig;
 import org.example.bookstore.enums.ErrorCode;
+import org.example.bookstore.enums.UserSortField;
 import org.example.bookstore.exception.AppException;
+import org.example.bookstore.mapper.BookMapper;
+import org.example.bookstore.mapper.UserMapper;
 import org.example.bookstore.model.*;
 import org.example.bookstore.payload.BookDTO;
 import org.example.bookstore.payload.CartDTO;
@@ -14,8 +18,8 @@ import org.example.bookstore.repository.RoleRepository;
 import org.example.bookstore.repository.UserRepository;
 import org.example.bookstore.service.Interface.CartService;
 import org.example.bookstore.service.Interface.UserService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -24,6 +28,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
@@ -37,7 +42,10 @@ public class UserServiceImpl implements UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+
+    @Autowired
+    private BookMapper bookMapper;
 
     @Autowired
     private CartService cartService;
@@ -47,15 +55,11 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserResponse getAllUsers(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+        Sort sortByAndOrder = UserSortField.fromProperty(sortBy).toSort(sortOrder.equalsIgnoreCase("asc"));
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
         Page<User> pageUsers = userRepository.findAll(pageDetails);
         List<UserDTO> userDTOs = pageUsers.getContent().stream()
-                .map(user -> {
-                    UserDTO userDTO = modelMapper.map(user, UserDTO.class);
-                    return userDTO;
-                }).toList();
+                .map(userMapper::toDTO).toList();
 
         UserResponse userResponse = new UserResponse();
         userResponse.setContent(userDTOs);
@@ -73,18 +77,11 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
 
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
-        CartDTO cart = modelMapper.map(user.getCart(), CartDTO.class);
-
-        List<CartItemDTO> cartItemDTOS = user.getCart().getCartItems().stream()
-                .map(item -> modelMapper.map(item.getBook(), CartItemDTO.class)).collect(Collectors.toList());
-        userDTO.setCart(cart);
-
-        userDTO.getCart().setCartItem(cartItemDTOS);
-        return userDTO;
+        return userMapper.toDTO(user);
     }
 
     @Override
+    @Transactional
     public UserDTO updateUser(UserUpdate userUpdate) {
         User user = userRepository.findUserByUsername(userUpdate.getUsername())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
@@ -94,16 +91,12 @@ public class UserServiceImpl implements UserService {
         user.setPhoneNumber(userUpdate.getPhoneNumber());
         user.setAddress(userUpdate.getAddress());
         userRepository.save(user);
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
-        CartDTO cart = modelMapper.map(user.getCart(), CartDTO.class);
-        List<CartItemDTO> cartItemDTOS = user.getCart().getCartItems().stream()
-                .map(item -> modelMapper.map(item.getBook(), CartItemDTO.class)).collect(Collectors.toList());
-        userDTO.setCart(cart);
-        userDTO.getCart().setCartItem(cartItemDTOS);
-        return userDTO;
+        return userMapper.toDTO(user);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_STATUS, allEntries = true)
     public String deleteUser(UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
@@ -126,11 +119,11 @@ public class UserServiceImpl implements UserService {
     public UserDTO getMyProfile(String username) {
         User user = userRepository.findUserByUsername(username)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
-        return userDTO;
+        return userMapper.toDTO(user);
     }
 
     @Override
+    @Transactional
     public String likedBooks(UUID userId, UUID bookId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
@@ -148,6 +141,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public String removeLikedBooks(UUID userId, UUID bookId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
@@ -170,7 +164,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
 
         return user.getLikedBooks().stream()
-                .map(book -> modelMapper.map(book, BookDTO.class))
+                .map(bookMapper::toDTO)
                 .collect(Collectors.toSet());
     }
 
@@ -0,0 +1,32 @@
+package org.example.bookstore.utils;
+
+import lombok.experimental.UtilityClass;
+import org.example.bookstore.enums.ErrorCode;
+import org.example.bookstore.exception.AppException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@UtilityClass
+public class CursorUtil {
+    private static final String SEPARATOR = "\n";
+
+    // The last part may contain the separator (e.g. a title), so it is always split off last.
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, expectedParts);
+            if (parts.length != expectedParts) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
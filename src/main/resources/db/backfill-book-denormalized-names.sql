@@ -0,0 +1,8 @@
+-- One-off backfill of book.author_name / category_name from the author and category tables,
+-- to run once after deploying the denormalized name columns (MySQL 8).
+
+UPDATE book b
+    LEFT JOIN author a ON a.id = b.author_id
+    LEFT JOIN category c ON c.id = b.category_id
+SET b.author_name   = a.author_name,
+    b.category_name = c.category_name;
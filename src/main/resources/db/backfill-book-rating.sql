@@ -0,0 +1,10 @@
+-- One-off backfill of book.rating_sum / rating_count / average_rating from the review table,
+-- to run once after deploying the incremental rating columns (MySQL 8).
+
+UPDATE book b
+    LEFT JOIN (SELECT book_id, SUM(rate_point) AS rating_sum, COUNT(*) AS rating_count
+               FROM review
+               GROUP BY book_id) r ON r.book_id = b.id
+SET b.rating_sum     = COALESCE(r.rating_sum, 0),
+    b.rating_count   = COALESCE(r.rating_count, 0),
+    b.average_rating = COALESCE(r.rating_sum / r.rating_count, 0);
@@ -0,0 +1,13 @@
+-- One-off backfill of review_summary from the review table, to run once after deploying
+-- the per-book review aggregates (MySQL 8). Safe to re-run: existing rows are overwritten.
+
+INSERT INTO review_summary (book_id, star_1, star_2, star_3, star_4, star_5, total, rating_sum)
+SELECT book_id,
+       SUM(rate_point = 1), SUM(rate_point = 2), SUM(rate_point = 3), SUM(rate_point = 4), SUM(rate_point = 5),
+       COUNT(*), SUM(rate_point)
+FROM review
+WHERE book_id IS NOT NULL
+GROUP BY book_id
+ON DUPLICATE KEY UPDATE star_1 = VALUES(star_1), star_2 = VALUES(star_2), star_3 = VALUES(star_3),
+                        star_4 = VALUES(star_4), star_5 = VALUES(star_5),
+                        total = VALUES(total), rating_sum = VALUES(rating_sum);
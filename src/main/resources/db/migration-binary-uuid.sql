@@ -0,0 +1,57 @@
+-- Converts UUID id and foreign-key columns stored as text (char(36)/varchar(255), as older
+-- Hibernate versions or hand-made schemas created them) to BINARY(16). Run manually on MySQL 8
+-- against a backup first. Schemas created by Hibernate 6 already use binary(16); check with
+--
+--   SELECT table_name, column_name, column_type FROM information_schema.columns
+--   WHERE table_schema = DATABASE() AND (column_name = 'id' OR column_name LIKE '%\_id')
+--     AND data_type IN ('char', 'varchar');
+--
+-- and skip the tables that are not listed. Existing v4 ids are kept as they are: new rows get
+-- time-ordered v7 ids, which sort after them, so no renumbering is needed.
+-- UUID_TO_BIN(x) is used without the swap flag because v7 ids are already time-ordered.
+
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- Step 1: widen to VARBINARY so the text and the 16 converted bytes both fit.
+ALTER TABLE author         MODIFY id VARBINARY(36) NOT NULL;
+ALTER TABLE category       MODIFY id VARBINARY(36) NOT NULL;
+ALTER TABLE book           MODIFY id VARBINARY(36) NOT NULL, MODIFY author_id VARBINARY(36), MODIFY category_id VARBINARY(36);
+ALTER TABLE `user`         MODIFY id VARBINARY(36) NOT NULL;
+ALTER TABLE user_role      MODIFY user_id VARBINARY(36) NOT NULL;
+ALTER TABLE users_liked_books MODIFY user_id VARBINARY(36) NOT NULL, MODIFY book_id VARBINARY(36) NOT NULL;
+ALTER TABLE carts          MODIFY id VARBINARY(36) NOT NULL, MODIFY user_id VARBINARY(36);
+ALTER TABLE cart_items     MODIFY id VARBINARY(36) NOT NULL, MODIFY cart_id VARBINARY(36), MODIFY book_id VARBINARY(36);
+ALTER TABLE orders         MODIFY id VARBINARY(36) NOT NULL, MODIFY user_id VARBINARY(36);
+ALTER TABLE order_items    MODIFY id VARBINARY(36) NOT NULL, MODIFY order_id VARBINARY(36), MODIFY book_id VARBINARY(36);
+ALTER TABLE review         MODIFY id VARBINARY(36) NOT NULL, MODIFY book_id VARBINARY(36), MODIFY user_id VARBINARY(36);
+ALTER TABLE token_invalid  MODIFY id VARBINARY(36) NOT NULL;
+
+-- Step 2: rewrite the text form as 16 raw bytes.
+UPDATE author            SET id = UUID_TO_BIN(id);
+UPDATE category          SET id = UUID_TO_BIN(id);
+UPDATE book              SET id = UUID_TO_BIN(id), author_id = UUID_TO_BIN(author_id), category_id = UUID_TO_BIN(category_id);
+UPDATE `user`            SET id = UUID_TO_BIN(id);
+UPDATE user_role         SET user_id = UUID_TO_BIN(user_id);
+UPDATE users_liked_books SET user_id = UUID_TO_BIN(user_id), book_id = UUID_TO_BIN(book_id);
+UPDATE carts             SET id = UUID_TO_BIN(id), user_id = UUID_TO_BIN(user_id);
+UPDATE cart_items        SET id = UUID_TO_BIN(id), cart_id = UUID_TO_BIN(cart_id), book_id = UUID_TO_BIN(book_id);
+UPDATE orders            SET id = UUID_TO_BIN(id), user_id = UUID_TO_BIN(user_id);
+UPDATE order_items       SET id = UUID_TO_BIN(id), order_id = UUID_TO_BIN(order_id), book_id = UUID_TO_BIN(book_id);
+UPDATE review            SET id = UUID_TO_BIN(id), book_id = UUID_TO_BIN(book_id), user_id = UUID_TO_BIN(user_id);
+UPDATE token_invalid     SET id = UUID_TO_BIN(id);
+
+-- Step 3: fix the width.
+ALTER TABLE author         MODIFY id BINARY(16) NOT NULL;
+ALTER TABLE category       MODIFY id BINARY(16) NOT NULL;
+ALTER TABLE book           MODIFY id BINARY(16) NOT NULL, MODIFY author_id BINARY(16), MODIFY category_id BINARY(16);
+ALTER TABLE `user`         MODIFY id BINARY(16) NOT NULL;
+ALTER TABLE user_role      MODIFY user_id BINARY(16) NOT NULL;
+ALTER TABLE users_liked_books MODIFY user_id BINARY(16) NOT NULL, MODIFY book_id BINARY(16) NOT NULL;
+ALTER TABLE carts          MODIFY id BINARY(16) NOT NULL, MODIFY user_id BINARY(16);
+ALTER TABLE cart_items     MODIFY id BINARY(16) NOT NULL, MODIFY cart_id BINARY(16), MODIFY book_id BINARY(16);
+ALTER TABLE orders         MODIFY id BINARY(16) NOT NULL, MODIFY user_id BINARY(16);
+ALTER TABLE order_items    MODIFY id BINARY(16) NOT NULL, MODIFY order_id BINARY(16), MODIFY book_id BINARY(16);
+ALTER TABLE review         MODIFY id BINARY(16) NOT NULL, MODIFY book_id BINARY(16), MODIFY user_id BINARY(16);
+ALTER TABLE token_invalid  MODIFY id BINARY(16) NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,16 @@
+-- One-off migration making every keyset sort key of book NOT NULL (MySQL 8). ddl-auto=update
+-- does not tighten existing columns, and a NULL key cannot be carried in a page cursor or
+-- compared by the (key, id) seek, so run this once after deploying. Safe to re-run.
+
+UPDATE book SET book_title = '' WHERE book_title IS NULL;
+UPDATE book SET price = 0 WHERE price IS NULL;
+UPDATE book SET sold = 0 WHERE sold IS NULL;
+UPDATE book
+SET average_rating = CASE WHEN rating_count > 0 THEN rating_sum / rating_count ELSE 0 END
+WHERE average_rating IS NULL;
+
+ALTER TABLE book
+    MODIFY book_title VARCHAR(255) NOT NULL,
+    MODIFY price DECIMAL(38, 2) NOT NULL,
+    MODIFY sold BIGINT NOT NULL,
+    MODIFY average_rating DOUBLE NOT NULL DEFAULT 0;
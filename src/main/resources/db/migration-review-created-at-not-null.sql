@@ -0,0 +1,8 @@
+-- One-off migration making review.created_at NOT NULL (MySQL 8), to run once after deploying the
+-- keyset review pages: a NULL date cannot be carried in a page cursor, and the (created_at, id)
+-- seek never reaches those rows. ddl-auto=update does not tighten existing columns. Legacy rows
+-- get the earliest date, which keeps them where MySQL already sorts NULLs: last, newest first.
+
+UPDATE review SET created_at = DATE '1970-01-01' WHERE created_at IS NULL;
+
+ALTER TABLE review MODIFY created_at DATE NOT NULL;
@@ -0,0 +1,122 @@
+package org.example.bookstore.benchmark;
+
+import org.example.bookstore.model.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory entity graphs shared by the JMH benchmarks, so no database is needed to run them.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Book book(int index) {
+        Author author = new Author();
+        author.setId(UUID.randomUUID());
+        author.setName("Author " + index);
+        Category category = new Category();
+        category.setId(UUID.randomUUID());
+        category.setName("Category " + index);
+
+        Book book = new Book();
+        book.setId(UUID.randomUUID());
+        book.setTitle("Title " + index);
+        book.setDescription("A reasonably long description for book number " + index);
+        book.setPrice(BigDecimal.valueOf(1000 + index, 2));
+        book.setPublisher("Publisher");
+        book.setIsbn("978-0-00-000000-" + index);
+        book.setLanguage("en");
+        book.setImagePath("https://example.org/" + index + ".png");
+        book.setStock(100L);
+        book.setSold(5L);
+        book.setAuthor(author);
+        book.setCategory(category);
+        book.setReviews(new ArrayList<>());
+        book.setOrderDetails(new ArrayList<>());
+        return book;
+    }
+
+    public static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+    public static List<CartItem> cartItems(int count) {
+        Cart cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        List<CartItem> cartItems = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = book(i);
+            CartItem cartItem = new CartItem();
+            cartItem.setId(UUID.randomUUID());
+            cartItem.setCart(cart);
+            cartItem.setBook(book);
+            cartItem.setQuantity(1 + i % 5);
+            cartItem.setBookPrice(book.getPrice());
+            cartItems.add(cartItem);
+        }
+        cart.setCartItems(cartItems);
+        return cartItems;
+    }
+
+    public static List<Review> reviews(int count) {
+        Book book = book(0);
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Review review = new Review();
+            review.setId(UUID.randomUUID());
+            review.setBook(book);
+            review.setRatePoint(1 + i % 5);
+            review.setCreatedAt(LocalDate.now());
+            reviews.add(review);
+        }
+        book.setReviews(reviews);
+        return reviews;
+    }
+
+    public static Order order(int items) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("user");
+        user.setLastName("Doe");
+        user.setEmail("user@example.org");
+
+        PaymentType paymentType = new PaymentType();
+        paymentType.setPaymentMethod("CASH");
+        DeliveryType deliveryType = new DeliveryType();
+        deliveryType.setDeliveryName("STANDARD");
+        deliveryType.setPrice(BigDecimal.ONE);
+
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setUser(user);
+        order.setOrderDate(LocalDate.now());
+        order.setPaymentMethod(paymentType);
+        order.setDeliveryMethod(deliveryType);
+        order.setTotalPrice(BigDecimal.TEN);
+        order.setShippingPrice(BigDecimal.ONE);
+        order.setTotalAmount(BigDecimal.valueOf(11));
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setId(UUID.randomUUID());
+            orderItem.setBook(book(i));
+            orderItem.setQuantity(i + 1);
+            orderItem.setProductPrice(BigDecimal.TEN);
+            orderItem.setOrder(order);
+            orderItems.add(orderItem);
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+}
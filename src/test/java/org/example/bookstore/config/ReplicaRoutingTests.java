@@ -0,0 +1,131 @@
+package org.example.bookstore.config;
+
+import org.example.bookstore.exception.AppException;
+import org.example.bookstore.service.Interface.CategoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the routing DataSource over two embedded databases. The replica never receives the
+ * primary's writes, so which rows a service call sees tells which database served it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE",
+        "app.datasource.replica.sticky-window=PT1M"
+})
+@ActiveProfiles("h2")
+class ReplicaRoutingTests {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        Integer tables = replica.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'category'", Integer.class);
+        if (tables == 0) {
+            // the replica gets the schema Hibernate created on the primary, but none of its rows
+            Path script = Files.createTempFile("replica-schema", ".sql");
+            try {
+                primary.execute("SCRIPT NODATA TO '" + script + "'");
+                replica.execute("RUNSCRIPT FROM '" + script + "'");
+            } finally {
+                Files.deleteIfExists(script);
+            }
+        }
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyServiceMethodsReadFromReplica() {
+        UUID onReplica = insertCategory(replica, "replica-only");
+        UUID onPrimary = insertCategory(primary, "primary-only");
+
+        assertThat(categoryService.getCategoryById(onReplica).getCategoryName()).isEqualTo("replica-only");
+        assertThatThrownBy(() -> categoryService.getCategoryById(onPrimary)).isInstanceOf(AppException.class);
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        categoryService.addCategory("written");
+
+        assertThat(countCategories(primary, "written")).isEqualTo(1);
+        assertThat(countCategories(replica, "written")).isZero();
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimary() {
+        authenticate("alice");
+        categoryService.addCategory("alice-category");
+        UUID written = toUuid(primary.queryForObject(
+                "SELECT id FROM category WHERE category_name = ?", byte[].class, "alice-category"));
+
+        assertThat(categoryService.getCategoryById(written).getCategoryName()).isEqualTo("alice-category");
+
+        authenticate("bob");
+        assertThatThrownBy(() -> categoryService.getCategoryById(written)).isInstanceOf(AppException.class);
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static UUID insertCategory(JdbcTemplate jdbc, String name) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO category (id, category_name) VALUES (?, ?)", toBytes(id), name);
+        return id;
+    }
+
+    private static int countCategories(JdbcTemplate jdbc, String name) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM category WHERE category_name = ?", Integer.class, name);
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
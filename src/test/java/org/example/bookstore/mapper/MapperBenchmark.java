@@ -0,0 +1,77 @@
+package org.example.bookstore.mapper;
+
+import org.example.bookstore.benchmark.BenchmarkFixtures;
+import org.example.bookstore.model.Book;
+import org.example.bookstore.model.Order;
+import org.example.bookstore.payload.BookDTO;
+import org.example.bookstore.payload.OrderDTO;
+import org.example.bookstore.payload.OrderItemDTO;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective ModelMapper path with the hand-written mappers for the
+ * conversions on the catalog and order hot paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private BookMapper bookMapper;
+    private OrderMapper orderMapper;
+
+    private Book book;
+    private List<Book> page;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        bookMapper = new BookMapper();
+        orderMapper = new OrderMapper(bookMapper);
+
+        book = BenchmarkFixtures.book(1);
+        page = BenchmarkFixtures.books(20);
+        order = BenchmarkFixtures.order(10);
+    }
+
+    @Benchmark
+    public BookDTO bookModelMapper() {
+        BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
+        bookDTO.setAuthorName(book.getAuthor().getName());
+        bookDTO.setCategoryName(book.getCategory().getName());
+        return bookDTO;
+    }
+
+    @Benchmark
+    public BookDTO bookMapper() {
+        return bookMapper.toDTO(book);
+    }
+
+    @Benchmark
+    public List<BookDTO> bookPageMapper() {
+        return page.stream().map(bookMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public OrderDTO orderModelMapper() {
+        OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
+        List<OrderItemDTO> items = new ArrayList<>();
+        order.getOrderItems().forEach(item -> items.add(modelMapper.map(item, OrderItemDTO.class)));
+        orderDTO.setOrderItem(items);
+        return orderDTO;
+    }
+
+    @Benchmark
+    public OrderDTO orderMapper() {
+        return orderMapper.toDTO(order);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.bookstore.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Catalog page latency against a book table of catalog size, on in-memory H2 with the composite
+// (sort key, id) indexes Book declares. firstPageBySortKey and nextPageBySortKey are what the
+// whitelisted sort fields run; firstPageByUnindexedColumn is what any other column would cost.
+// H2 hands back the previous result when a statement runs again with the same parameters, so every
+// invocation alternates between two neighbouring offsets/cursors to force a real execution.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CatalogSortBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000", "1000000"})
+    private int books;
+
+    private Connection connection;
+
+    private PreparedStatement firstPageBySortKey;
+
+    private PreparedStatement firstPageByUnindexedColumn;
+
+    private PreparedStatement nextPageBySortKey;
+
+    private final String[] cursorTitles = new String[2];
+
+    private final UUID[] cursorIds = new UUID[2];
+
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:catalog-" + books + ";DB_CLOSE_DELAY=-1");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE book (id UUID PRIMARY KEY, book_title VARCHAR(255), "
+                    + "description VARCHAR(255), price DECIMAL(10, 2), sold BIGINT, average_rating DOUBLE)");
+            ddl.execute("CREATE INDEX idx_book_title_id ON book (book_title, id)");
+            ddl.execute("CREATE INDEX idx_book_price_id ON book (price, id)");
+            ddl.execute("CREATE INDEX idx_book_sold_id ON book (sold, id)");
+            ddl.execute("CREATE INDEX idx_book_rating_id ON book (average_rating, id)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO book (id, book_title, description, price, sold, average_rating) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < books; i++) {
+                // scrambled so neither title nor description order follows insertion order
+                long key = (i * 2654435761L) % books;
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, "Title " + key);
+                insert.setString(3, "Description " + key);
+                insert.setBigDecimal(4, BigDecimal.valueOf(key % 10000, 2));
+                insert.setLong(5, key % 5000);
+                insert.setDouble(6, (key % 50) / 10.0);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        firstPageBySortKey = connection.prepareStatement(
+                "SELECT id, book_title FROM book ORDER BY book_title, id LIMIT " + PAGE_SIZE + " OFFSET ?");
+        firstPageByUnindexedColumn = connection.prepareStatement(
+                "SELECT id, book_title FROM book ORDER BY description, id LIMIT " + PAGE_SIZE + " OFFSET ?");
+        nextPageBySortKey = connection.prepareStatement(
+                "SELECT id, book_title FROM book WHERE book_title >= ? AND (book_title > ? OR id > ?) "
+                        + "ORDER BY book_title, id LIMIT " + PAGE_SIZE);
+        try (PreparedStatement middle = connection.prepareStatement(
+                "SELECT book_title, id FROM book ORDER BY book_title, id LIMIT 2 OFFSET " + books / 2);
+             ResultSet rows = middle.executeQuery()) {
+            for (int i = 0; i < 2 && rows.next(); i++) {
+                cursorTitles[i] = rows.getString(1);
+                cursorIds[i] = rows.getObject(2, UUID.class);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement drop = connection.createStatement()) {
+            drop.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void firstPageBySortKey(Blackhole blackhole) throws SQLException {
+        firstPageBySortKey.setInt(1, invocation++ & 1);
+        consume(firstPageBySortKey, blackhole);
+    }
+
+    @Benchmark
+    public void firstPageByUnindexedColumn(Blackhole blackhole) throws SQLException {
+        firstPageByUnindexedColumn.setInt(1, invocation++ & 1);
+        consume(firstPageByUnindexedColumn, blackhole);
+    }
+
+    @Benchmark
+    public void nextPageBySortKey(Blackhole blackhole) throws SQLException {
+        int cursor = invocation++ & 1;
+        nextPageBySortKey.setString(1, cursorTitles[cursor]);
+        nextPageBySortKey.setString(2, cursorTitles[cursor]);
+        nextPageBySortKey.setObject(3, cursorIds[cursor]);
+        consume(nextPageBySortKey, blackhole);
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getObject(1));
+                blackhole.consume(rows.getString(2));
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.bookstore.search;
+
+import org.example.bookstore.event.BookCatalogChangedEvent;
+import org.example.bookstore.payload.request.BookFilterRequest;
+import org.example.bookstore.repository.BookRepository;
+import org.example.bookstore.repository.BookRepository.FacetRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Filtering and facet counts over six hand-built rows, without a Spring context: the repository
+ * is a mock that hands the index its rows.
+ */
+class BookFacetIndexTests {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+
+    private final Row annaKarenina = row("Anna Karenina", "Novel", "Tolstoy", "en", "Penguin", "12.00", 4.5, 3);
+
+    private final Row braveNewWorld = row("Brave New World", "Novel", "Huxley", "en", "Vintage", "9.50", 4.0, 0);
+
+    private final Row cleanCode = row("Clean Code", "Programming", "Martin", "en", "Prentice Hall", "35.00", 4.7, 10);
+
+    private final Row deMen = row("Dế Mèn Phiêu Lưu Ký", "Children", "Tô Hoài", "vi", "Kim Đồng", "5.00", 4.8, 7);
+
+    // lower case on purpose: titles are ordered ignoring case
+    private final Row effectiveJava = row("effective Java", "Programming", "Bloch", "en", "Addison-Wesley", "45.00", 4.9, 0);
+
+    private final Row warAndPeace = row("War and Peace", "Novel", "Tolstoy", "en", "Penguin", "15.00", 3.9, 2);
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findFacetRows(any())).thenReturn(
+                List.of(warAndPeace, cleanCode, annaKarenina, effectiveJava, deMen, braveNewWorld));
+    }
+
+    @Test
+    void emptyFilterMatchesEverythingInTitleOrder() {
+        BookFacetIndex.Result result = loadedIndex(50).filter(new BookFilterRequest(), 0, 10);
+
+        assertThat(result.getIds()).containsExactly(annaKarenina.getId(), braveNewWorld.getId(), cleanCode.getId(),
+                deMen.getId(), effectiveJava.getId(), warAndPeace.getId());
+        assertThat(result.getTotalMatches()).isEqualTo(6);
+        assertThat(result.getFacets().get(BookFacetIndex.CATEGORY))
+                .containsExactly(Map.entry("Novel", 3), Map.entry("Programming", 2), Map.entry("Children", 1));
+        assertThat(result.getFacets().get(BookFacetIndex.IN_STOCK))
+                .containsExactly(Map.entry("true", 4), Map.entry("false", 2));
+    }
+
+    @Test
+    void selectedFacetFiltersButKeepsItsOwnCounts() {
+        BookFilterRequest request = new BookFilterRequest();
+        request.setCategory(List.of("Novel"));
+
+        BookFacetIndex.Result result = loadedIndex(50).filter(request, 0, 10);
+
+        assertThat(result.getIds()).containsExactly(annaKarenina.getId(), braveNewWorld.getId(), warAndPeace.getId());
+        assertThat(result.getTotalMatches()).isEqualTo(3);
+        // the other categories stay visible with the counts they would give
+        assertThat(result.getFacets().get(BookFacetIndex.CATEGORY))
+                .containsExactly(Map.entry("Novel", 3), Map.entry("Programming", 2), Map.entry("Children", 1));
+        assertThat(result.getFacets().get(BookFacetIndex.AUTHOR))
+                .containsExactly(Map.entry("Tolstoy", 2), Map.entry("Huxley", 1));
+        assertThat(result.getFacets().get(BookFacetIndex.LANGUAGE)).containsExactly(Map.entry("en", 3));
+        assertThat(result.getFacets().get(BookFacetIndex.IN_STOCK))
+                .containsExactly(Map.entry("true", 2), Map.entry("false", 1));
+    }
+
+    @Test
+    void inStockFiltersButCountsBothSides() {
+        BookFilterRequest request = new BookFilterRequest();
+        request.setInStock(true);
+
+        BookFacetIndex.Result result = loadedIndex(50).filter(request, 0, 10);
+
+        assertThat(result.getIds()).containsExactly(annaKarenina.getId(), cleanCode.getId(), deMen.getId(),
+                warAndPeace.getId());
+        assertThat(result.getTotalMatches()).isEqualTo(4);
+        assertThat(result.getFacets().get(BookFacetIndex.IN_STOCK))
+                .containsExactly(Map.entry("true", 4), Map.entry("false", 2));
+        // ties are ordered by value
+        assertThat(result.getFacets().get(BookFacetIndex.CATEGORY))
+                .containsExactly(Map.entry("Novel", 2), Map.entry("Children", 1), Map.entry("Programming", 1));
+    }
+
+    @Test
+    void priceAndRatingRangesAreInclusive() {
+        BookFilterRequest request = new BookFilterRequest();
+        request.setMinPrice(new BigDecimal("12.00"));
+        request.setMaxPrice(new BigDecimal("35.00"));
+        request.setMinRating(4.5);
+
+        BookFacetIndex.Result result = loadedIndex(50).filter(request, 0, 10);
+
+        // War and Peace is in the price range but rated 3.9
+        assertThat(result.getIds()).containsExactly(annaKarenina.getId(), cleanCode.getId());
+        assertThat(result.getTotalMatches()).isEqualTo(2);
+        assertThat(result.getFacets().get(BookFacetIndex.CATEGORY))
+                .containsExactly(Map.entry("Novel", 1), Map.entry("Programming", 1));
+        assertThat(result.getFacets().get(BookFacetIndex.IN_STOCK))
+                .containsExactly(Map.entry("true", 2), Map.entry("false", 0));
+    }
+
+    @Test
+    void pagesByOffsetOverTheWholeMatch() {
+        BookFacetIndex index = loadedIndex(50);
+        BookFilterRequest request = new BookFilterRequest();
+
+        assertThat(index.filter(request, 2, 2).getIds()).containsExactly(cleanCode.getId(), deMen.getId());
+        assertThat(index.filter(request, 5, 10).getIds()).containsExactly(warAndPeace.getId());
+        BookFacetIndex.Result pastTheEnd = index.filter(request, 6, 10);
+        assertThat(pastTheEnd.getIds()).isEmpty();
+        // totals and counts do not depend on the page
+        assertThat(pastTheEnd.getTotalMatches()).isEqualTo(6);
+        assertThat(pastTheEnd.getFacets().get(BookFacetIndex.AUTHOR)).containsEntry("Tolstoy", 2);
+    }
+
+    @Test
+    void facetValuesAreCappedToTheMostFrequent() {
+        BookFacetIndex.Result result = loadedIndex(2).filter(new BookFilterRequest(), 0, 10);
+
+        assertThat(result.getFacets().get(BookFacetIndex.CATEGORY))
+                .containsExactly(Map.entry("Novel", 3), Map.entry("Programming", 2));
+    }
+
+    @Test
+    void catalogEventsUpdateTheIndex() {
+        BookFacetIndex index = loadedIndex(50);
+        Row restocked = new Row(braveNewWorld.getId(), "Brave New World", "Novel", "Huxley", "en", "Vintage",
+                new BigDecimal("9.50"), 4.0, 5L);
+        when(bookRepository.findFacetRowsByIdIn(List.of(restocked.getId()))).thenReturn(List.of(restocked));
+
+        index.onCatalogChanged(BookCatalogChangedEvent.saved(restocked.getId()));
+        index.onCatalogChanged(BookCatalogChangedEvent.deleted(warAndPeace.getId()));
+
+        BookFilterRequest request = new BookFilterRequest();
+        request.setAuthor(List.of("Tolstoy", "Huxley"));
+        request.setInStock(true);
+        BookFacetIndex.Result result = index.filter(request, 0, 10);
+        assertThat(result.getIds()).containsExactly(annaKarenina.getId(), braveNewWorld.getId());
+        // author is the selected facet, so its counts cover every book in stock
+        assertThat(result.getFacets().get(BookFacetIndex.AUTHOR)).containsOnly(Map.entry("Huxley", 1),
+                Map.entry("Martin", 1), Map.entry("Tolstoy", 1), Map.entry("Tô Hoài", 1));
+        assertThat(result.getFacets().get(BookFacetIndex.IN_STOCK))
+                .containsExactly(Map.entry("true", 2), Map.entry("false", 0));
+    }
+
+    private BookFacetIndex loadedIndex(int maxFacetValues) {
+        BookFacetIndex index = new BookFacetIndex(bookRepository, 1000, maxFacetValues);
+        index.reload();
+        return index;
+    }
+
+    private static Row row(String title, String category, String author, String language, String publisher,
+                           String price, double rating, long stock) {
+        return new Row(UUID.randomUUID(), title, category, author, language, publisher, new BigDecimal(price),
+                rating, stock);
+    }
+
+    private record Row(UUID getId, String getTitle, String getCategory, String getAuthor, String getLanguage,
+                       String getPublisher, BigDecimal getPrice, Double getAverageRating, Long getStock)
+            implements FacetRow {
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.bookstore.search;
+
+import org.example.bookstore.event.BookCatalogChangedEvent;
+import org.example.bookstore.payload.BookDTO;
+import org.example.bookstore.payload.SuggestionDTO;
+import org.example.bookstore.repository.AuthorRepository;
+import org.example.bookstore.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Typeahead over a handful of books, without a Spring context: the repositories are mocks that
+ * hand the index its rows, and events are delivered by calling the listener directly.
+ */
+class SuggestionIndexTests {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+
+    private final AuthorRepository authorRepository = mock(AuthorRepository.class);
+
+    private final BookDTO harryPotter = book("Harry Potter", "Rowling", 50);
+
+    private final BookDTO hamlet = book("Hamlet", "Shakespeare", 30);
+
+    private final BookDTO harborLights = book("Harbor Lights", "Rowling", 10);
+
+    private final BookDTO tiengViet = book("Tiếng Việt Cơ Bản", "Đặng Hà", 5);
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findBookDTOsAfter(any(), any(), any(), anyBoolean(), any(), any(), anyInt()))
+                .thenReturn(List.of(harryPotter, hamlet, harborLights, tiengViet));
+        when(authorRepository.findAllNames()).thenReturn(List.of("Rowling", "Shakespeare", "Đặng Hà", "Harper Lee"));
+    }
+
+    @Test
+    void prefixMatchesComeMostSoldFirst() {
+        SuggestionIndex index = loadedIndex(100);
+
+        // "Đặng Hà" matches through its second word; "Harper Lee" has no books, so weight 0
+        assertThat(texts(index.suggest("ha", 10)))
+                .containsExactly("Harry Potter", "Hamlet", "Harbor Lights", "Đặng Hà", "Harper Lee");
+        assertThat(texts(index.suggest("Ha", 2))).containsExactly("Harry Potter", "Hamlet");
+        assertThat(index.suggest("ha", 10).get(0).getType()).isEqualTo(SuggestionDTO.Type.TITLE);
+        assertThat(index.suggest("harry", 10).get(0).getBookId()).isEqualTo(harryPotter.getId());
+        assertThat(index.suggest("zz", 10)).isEmpty();
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void prefixesAreAccentAndCaseInsensitive() {
+        SuggestionIndex index = loadedIndex(100);
+
+        assertThat(texts(index.suggest("tieng v", 10))).containsExactly("Tiếng Việt Cơ Bản");
+        assertThat(texts(index.suggest("VIET co", 10))).containsExactly("Tiếng Việt Cơ Bản");
+        assertThat(texts(index.suggest("dang", 10))).containsExactly("Đặng Hà");
+        // a title reachable from two of its words is suggested once
+        assertThat(texts(index.suggest("p", 10))).containsExactly("Harry Potter");
+    }
+
+    @Test
+    void savedBookIsReindexedWithItsNewWeight() {
+        SuggestionIndex index = loadedIndex(100);
+        BookDTO bestSeller = book("Harbor Lights", "Rowling", 100);
+        bestSeller.setId(harborLights.getId());
+        BookDTO added = book("Hanoi Nights", "Đặng Hà", 40);
+        when(bookRepository.findBookDTOsByIdIn(List.of(bestSeller.getId()))).thenReturn(List.of(bestSeller));
+        when(bookRepository.findBookDTOsByIdIn(List.of(added.getId()))).thenReturn(List.of(added));
+
+        index.onCatalogChanged(BookCatalogChangedEvent.saved(bestSeller.getId()));
+        index.onCatalogChanged(BookCatalogChangedEvent.saved(added.getId()));
+
+        assertThat(texts(index.suggest("ha", 10)))
+                .containsExactly("Harbor Lights", "Harry Potter", "Đặng Hà", "Hanoi Nights", "Hamlet", "Harper Lee");
+        // Rowling is now 50 + 100 sold, Đặng Hà 5 + 40
+        assertThat(texts(index.suggest("r", 1))).containsExactly("Rowling");
+        assertThat(texts(index.suggest("ha", 10))).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void deletedBookDisappearsAndItsAuthorLosesWeight() {
+        SuggestionIndex index = loadedIndex(100);
+
+        index.onCatalogChanged(BookCatalogChangedEvent.deleted(harryPotter.getId()));
+
+        assertThat(index.suggest("harry", 10)).isEmpty();
+        assertThat(texts(index.suggest("ha", 10)))
+                .containsExactly("Hamlet", "Harbor Lights", "Đặng Hà", "Harper Lee");
+        // Rowling drops from 60 to 10 sold, below Shakespeare's 30
+        assertThat(texts(index.suggest("s", 1))).containsExactly("Shakespeare");
+        assertThat(texts(index.suggest("rowling", 10))).containsExactly("Rowling");
+    }
+
+    @Test
+    void maxEntriesKeepsOnlyTheMostSold() {
+        // weights: Rowling 60, Harry Potter 50, then everything else at 30 or less
+        SuggestionIndex index = loadedIndex(2);
+
+        assertThat(texts(index.suggest("ha", 10))).containsExactly("Harry Potter");
+        assertThat(texts(index.suggest("row", 10))).containsExactly("Rowling");
+        assertThat(index.suggest("shake", 10)).isEmpty();
+    }
+
+    @Test
+    void normalizeFoldsAccentsPunctuationAndCase() {
+        assertThat(SuggestionIndex.normalize("  Tiếng-Việt: Cơ bản! ")).isEqualTo("tieng viet co ban");
+        assertThat(SuggestionIndex.normalize("Đặng")).isEqualTo("dang");
+        assertThat(SuggestionIndex.normalize(null)).isEmpty();
+    }
+
+    private SuggestionIndex loadedIndex(int maxEntries) {
+        SuggestionIndex index = new SuggestionIndex(bookRepository, authorRepository, maxEntries, 4, 1000);
+        index.reload();
+        return index;
+    }
+
+    private static List<String> texts(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getText).toList();
+    }
+
+    private static BookDTO book(String title, String author, long sold) {
+        BookDTO book = new BookDTO();
+        book.setId(UUID.randomUUID());
+        book.setTitle(title);
+        book.setAuthorName(author);
+        book.setSold(sold);
+        return book;
+    }
+}
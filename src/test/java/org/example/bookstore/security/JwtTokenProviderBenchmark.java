@@ -0,0 +1,60 @@
+package org.example.bookstore.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "VCseiDTKgVBE5tgSFDKYwG8x/w2xcb6orUgk22d7vaH3hwDbNU6WnqRjsSANRzoa";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET);
+        Date now = new Date();
+        token = Jwts.builder()
+                .setSubject("user")
+                .claim("id", now.getTime())
+                .claim("scope", "USER")
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+                .setHeaderParam("typ", "JWT")
+                .compact();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtTokenProvider.getUsername(token);
+    }
+
+    // What JwtTokenFilter used to pay on every authenticated request.
+    @Benchmark
+    public String validateThenGetUsername() {
+        return jwtTokenProvider.validateToken(token) ? jwtTokenProvider.getUsername(token) : null;
+    }
+
+    // What JwtTokenFilter pays now: one verification, all claims.
+    @Benchmark
+    public Claims parseIfValid() {
+        return jwtTokenProvider.parseIfValid(token);
+    }
+}
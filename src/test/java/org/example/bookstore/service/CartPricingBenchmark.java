@@ -0,0 +1,32 @@
+package org.example.bookstore.service;
+
+import org.example.bookstore.benchmark.BenchmarkFixtures;
+import org.example.bookstore.model.CartItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CartPricingBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int items;
+
+    private List<CartItem> cartItems;
+
+    @Setup
+    public void setUp() {
+        cartItems = BenchmarkFixtures.cartItems(items);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalPrice() {
+        return CartServiceImpl.calculateTotalPrice(cartItems);
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.bookstore.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.bookstore.model.Book;
+import org.example.bookstore.model.Cart;
+import org.example.bookstore.model.DeliveryType;
+import org.example.bookstore.model.PaymentType;
+import org.example.bookstore.model.User;
+import org.example.bookstore.repository.BookRepository;
+import org.example.bookstore.repository.CartRepository;
+import org.example.bookstore.repository.DeliveryRepository;
+import org.example.bookstore.repository.PaymentRepository;
+import org.example.bookstore.repository.UserRepository;
+import org.example.bookstore.service.Interface.CartService;
+import org.example.bookstore.service.Interface.OrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Places the same 30-line order on an embedded database with JDBC batching off (batch size 1)
+ * and on, and compares the number of JDBC statements Hibernate prepared for it.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class OrderPlacementBatchingTests {
+
+    private static final int CART_LINES = 30;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Object originalJdbcBatchSize;
+
+    @BeforeEach
+    void setUp() {
+        OrderService target = AopTestUtils.getTargetObject(orderService);
+        originalJdbcBatchSize = ReflectionTestUtils.getField(target, "jdbcBatchSize");
+        if (paymentRepository.findByPaymentMethod("CASH") == null) {
+            PaymentType paymentType = new PaymentType();
+            paymentType.setPaymentMethod("CASH");
+            paymentRepository.save(paymentType);
+
+            DeliveryType deliveryType = new DeliveryType();
+            deliveryType.setDeliveryName("STANDARD");
+            deliveryType.setPrice(BigDecimal.ONE);
+            deliveryRepository.save(deliveryType);
+        }
+    }
+
+    // the service is a singleton of the cached context, shared with every later test class
+    @AfterEach
+    void restoreJdbcBatchSize() {
+        OrderService target = AopTestUtils.getTargetObject(orderService);
+        ReflectionTestUtils.setField(target, "jdbcBatchSize", originalJdbcBatchSize);
+    }
+
+    @Test
+    void batchingReducesStatementsForOrderPlacement() {
+        long unbatched = placeOrderCountingStatements(1);
+        long batched = placeOrderCountingStatements(50);
+
+        // 30 lines take 38 statements one by one and 9 batched; allow some slack for schema changes
+        assertThat(batched * 3).isLessThan(unbatched);
+        assertThat(batched).isLessThan(CART_LINES);
+    }
+
+    private long placeOrderCountingStatements(int jdbcBatchSize) {
+        OrderService target = AopTestUtils.getTargetObject(orderService);
+        ReflectionTestUtils.setField(target, "jdbcBatchSize", jdbcBatchSize);
+        Cart cart = fillCart();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        orderService.placeOrder(cart.getUser().getId(), cart.getId(), "CASH", "STANDARD");
+        return statistics.getPrepareStatementCount();
+    }
+
+    // A user owns exactly one cart, so every order gets a fresh buyer.
+    private Cart fillCart() {
+        User user = userRepository.save(User.builder()
+                .username("buyer" + UUID.randomUUID().toString().substring(0, 8))
+                .password("secret")
+                .email(UUID.randomUUID() + "@example.com")
+                .build());
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart = cartRepository.save(cart);
+        for (int i = 0; i < CART_LINES; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setPrice(BigDecimal.TEN);
+            book.setStock(10L);
+            book.setSold(0L);
+            book.setPublisher("Publisher");
+            book.setIsbn("ISBN-" + i);
+            cartService.addProductToCart(cart.getId(), bookRepository.save(book).getId(), 1);
+        }
+        return cart;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.bookstore.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FileUploadUtilBenchmark {
+
+    @Param({"cover.png", "scan_2024_final.JPEG", "not an image.txt"})
+    private String fileName;
+
+    @Benchmark
+    public boolean isAllowedExtension() {
+        return FileUploadUtil.isAllowedExtension(fileName, FileUploadUtil.IMAGE_PATTERN);
+    }
+}